@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+
+/**
+ * The ChessGame calls the server makes while validating and applying moves
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+    // Knights out and back again, so the game returns to its start every cycle
+    private static final ChessMove[] SHUFFLE = {
+            new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+            new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+            new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+            new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null),
+    };
+
+    private ChessGame middlegame;
+    private ChessGame checkmate;
+    private List<ChessPosition> whitePieces;
+    private ChessGame shuffleGame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        middlegame = Positions.load(Positions.MIDDLEGAME);
+        checkmate = Positions.load(Positions.CHECKMATE);
+        whitePieces = middlegame.getBoard().getPiecePositions(ChessGame.TeamColor.WHITE);
+    }
+
+    @Setup(Level.Iteration)
+    public void newShuffleGame() {
+        shuffleGame = new ChessGame();
+    }
+
+    /**
+     * Valid moves for every piece of the side to move, as a client asks for
+     * when highlighting
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition position : whitePieces){
+            blackhole.consume(middlegame.validMoves(position));
+        }
+    }
+
+    @Benchmark
+    public Object legalMoves() {
+        return middlegame.legalMoves();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return middlegame.isInCheck(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateFalse() {
+        return middlegame.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateTrue() {
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public void makeMove() throws InvalidMoveException {
+        for (ChessMove move : SHUFFLE){
+            shuffleGame.makeMove(move);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.engine.Engine;
+import chess.engine.Evaluation;
+import chess.engine.SearchRequest;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import chess.moves.Move;
+
+/**
+ * What the engine pays per node: the static evaluation, the make/unmake
+ * that keeps it up to date, and a whole fixed-depth search. The search also
+ * reports its nodes per second as the secondary result searchDepth5:nodes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+    // Nf3-g5 in the middlegame position, played and taken back
+    private static final int KNIGHT_MOVE = Move.encode(21, 38);
+
+    private ChessGame middlegame;
+    private ChessBoard board;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        middlegame = Positions.load(Positions.MIDDLEGAME);
+        board = middlegame.getBoard();
+    }
+
+    /**
+     * A fresh engine and table for every search, so each one starts cold
+     */
+    @State(Scope.Thread)
+    public static class ColdEngine {
+        Engine engine;
+
+        @Setup(Level.Invocation)
+        public void newEngine() {
+            engine = new Engine(new TranspositionTable(1));
+        }
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return Evaluation.evaluate(board, ChessGame.TeamColor.WHITE);
+    }
+
+    /**
+     * A move and its undo, including the incremental evaluation update
+     */
+    @Benchmark
+    public int makeUnmake() {
+        board.makeMove(KNIGHT_MOVE);
+        int score = board.getMidgameScore();
+        board.unmakeMove();
+        return score;
+    }
+
+    /**
+     * Nodes searched, which JMH reports as a rate alongside the searches
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class SearchNodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public SearchResult searchDepth5(ColdEngine cold, SearchNodes counter) {
+        SearchResult result = cold.engine.search(middlegame, SearchRequest.depth(5));
+        counter.nodes += result.nodes();
+        return result;
+    }
+}
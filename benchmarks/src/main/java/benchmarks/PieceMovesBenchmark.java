@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Pseudo-legal move generation through ChessPiece.pieceMoves, one piece type
+ * at a time
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType type;
+
+    private ChessBoard board;
+    private ChessPiece piece;
+    private ChessPosition position;
+
+    @Setup
+    public void setup() {
+        board = Positions.load(Positions.MIDDLEGAME).getBoard();
+        long pieces = board.getPieces(ChessGame.TeamColor.WHITE, type);
+        position = ChessPosition.fromSquare(Long.numberOfTrailingZeros(pieces));
+        piece = board.getPiece(position);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> pieceMoves() {
+        return piece.pieceMoves(board, position);
+    }
+}
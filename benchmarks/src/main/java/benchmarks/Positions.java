@@ -0,0 +1,22 @@
+package benchmarks;
+
+import chess.ChessGame;
+
+/**
+ * Positions shared by the benchmarks, so results stay comparable between runs
+ */
+final class Positions {
+    // Italian game after 4...Bc5: every piece type has moves and both kings can castle
+    static final String MIDDLEGAME = "r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/2N2N2/PPPP1PPP/R1BQK2R w KQkq - 6 5";
+    // Fool's mate, white to move and checkmated
+    static final String CHECKMATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+
+    private Positions() {
+    }
+
+    static ChessGame load(String fen) {
+        ChessGame game = new ChessGame();
+        game.loadFEN(fen);
+        return game;
+    }
+}
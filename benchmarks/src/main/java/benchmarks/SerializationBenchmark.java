@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.gson.Gson;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessJson;
+import chess.GameCodec;
+
+/**
+ * Turning positions into and out of the formats they are stored and sent in
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    private final Gson gson = new Gson();
+    private final Gson adapters = ChessJson.gson();
+    private final ChessBoard board = new ChessBoard();
+    private final ChessGame target = new ChessGame();
+    private ChessGame game;
+    private String json;
+    private String compactJson;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        game = Positions.load(Positions.MIDDLEGAME);
+        json = gson.toJson(game);
+        compactJson = adapters.toJson(game);
+        encoded = GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessBoard loadFEN() {
+        board.loadFEN(Positions.MIDDLEGAME);
+        return board;
+    }
+
+    @Benchmark
+    public ChessGame gameLoadFEN() {
+        target.loadFEN(Positions.MIDDLEGAME);
+        return target;
+    }
+
+    @Benchmark
+    public String toFEN() {
+        return game.toFEN();
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessGame codecDecode() {
+        return GameCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public String gsonToJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame gsonFromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame gsonRoundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public String adapterToJson() {
+        return adapters.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame adapterFromJson() {
+        return adapters.fromJson(compactJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame adapterRoundTrip() {
+        return adapters.fromJson(adapters.toJson(game), ChessGame.class);
+    }
+}
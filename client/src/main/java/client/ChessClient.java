@@ -15,10 +15,12 @@ import chess.ChessBoard;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPiece;
+import chess.ChessJson;
 
 public class ChessClient {
     private Integer currentGameID;
     private String playerColor;
+    // FEN of the game being played or watched
     private String currentGameState;
     private String pendingAction;
     private final String serverUrl;
@@ -26,7 +28,7 @@ public class ChessClient {
     private AuthData authData;
     private List<GameData> currentGames;
     private GameData currentGame;
-    private final Gson gson = new Gson();
+    private final Gson gson = ChessJson.gson();
     
 
     public ChessClient(String serverUrl) {
@@ -240,7 +242,7 @@ public class ChessClient {
                 currentGameID = gameID;
                 playerColor = chosenColor;
                 ChessGame chessGame = currentGame.gameState();
-                currentGameState = gson.toJson(chessGame);
+                currentGameState = chessGame.toFEN();
                 state = State.IN_GAME;
                 return drawChessBoard(playerColor.equals("WHITE"), null);
             } catch (Exception e) {
@@ -267,7 +269,7 @@ public class ChessClient {
                 currentGame = gson.fromJson(gameResponse, GameData.class);
                 currentGameID = gameID;
                 playerColor = null;
-                currentGameState = gson.toJson(currentGame.gameState());
+                currentGameState = currentGame.gameState().toFEN();
                 state = State.IN_GAME;
                 return drawChessBoard(true, null);
             } catch (NumberFormatException e) {
@@ -332,12 +334,12 @@ public class ChessClient {
             ChessPosition to = parsePosition(params[1]);
             ChessPiece.PieceType promotion = parsePromotion(params.length > 2 ? params[2] : null);
     
-            ChessBoard board = new ChessBoard();
-            board.loadFEN(currentGameState);
-            ChessPiece piece = board.getPiece(from);
+            ChessGame game = new ChessGame();
+            game.loadFEN(currentGameState);
+            if (game.getBoard().getPiece(from) == null) return "Invalid move!";
     
-            // Validate move
-            Set<ChessMove> validMoves = new HashSet<>(piece.pieceMoves(board, from));
+            // Validate move, with castling and en passant known from the FEN
+            Set<ChessMove> validMoves = new HashSet<>(game.validMoves(from));
             boolean isValid = validMoves.stream()
                 .anyMatch(m -> m.getEndPosition().equals(to) && 
                           (m.getPromotionPiece() == promotion));
@@ -357,7 +359,7 @@ public class ChessClient {
             
             // Update game state
             String response = sendRequest("GET", "/game/" + currentGameID, null, authData.authToken());
-            currentGameState = gson.toJson(gson.fromJson(response, GameData.class).gameState());
+            currentGameState = gson.fromJson(response, GameData.class).gameState().toFEN();
             return redrawBoard();
         } catch (IllegalArgumentException e) {
             return "Invalid move: " + e.getMessage();
@@ -423,7 +425,8 @@ public class ChessClient {
 
     private String drawChessBoard(boolean isWhitePerspective, Set<ChessPosition> highlights) {
         try{
-            ChessGame game = new Gson().fromJson(currentGameState, ChessGame.class);
+            ChessGame game = new ChessGame();
+            game.loadFEN(currentGameState);
             ChessBoard board = game.getBoard();
         StringBuilder sb = new StringBuilder();
         int[] ranks = isWhitePerspective ? new int[]{8, 7, 6, 5, 4, 3, 2, 1} : new int[]{1, 2, 3, 4, 5, 6, 7, 8};
@@ -484,9 +487,9 @@ private String getPieceSymbol(ChessPiece piece) {
 
         private Set<ChessPosition> calculateLegalMoves(ChessPosition from) {
         try {
-            ChessBoard board = new ChessBoard();
-            board.loadFEN(currentGameState);
-            ChessPiece piece = board.getPiece(from);
+            ChessGame game = new ChessGame();
+            game.loadFEN(currentGameState);
+            ChessPiece piece = game.getBoard().getPiece(from);
             
             if (piece == null) return Collections.emptySet();
             if (playerColor == null) return Collections.emptySet(); // Observers can't move
@@ -497,7 +500,7 @@ private String getPieceSymbol(ChessPiece piece) {
                 
             if (piece.getTeamColor() != currentColor) return Collections.emptySet();
             
-            return piece.pieceMoves(board, from).stream()
+            return game.validMoves(from).stream()
                 .map(ChessMove::getEndPosition)
                 .collect(Collectors.toSet());
         } catch (Exception e) {
@@ -1,8 +1,8 @@
 package model;
 
-import com.google.gson.Gson;
-
 import chess.ChessGame;
+import chess.ChessJson;
+import chess.GameCodec;
 
 public class GameData {
     private int gameID;
@@ -16,5 +16,11 @@ public class GameData {
     public String gameName() { return gameName; }
     public String whiteUsername() { return whiteUsername; }
     public String blackUsername() { return blackUsername; }
-    public ChessGame gameState() { return new Gson().fromJson(gameState, ChessGame.class); }
+    // Encoded with GameCodec, or JSON from servers that predate it; null when the game has no state
+    public ChessGame gameState() {
+        if (gameState == null) {
+            return null;
+        }
+        return gameState.startsWith("{") ? ChessJson.gson().fromJson(gameState, ChessGame.class) : GameCodec.decode(gameState);
+    }
 }
\ No newline at end of file
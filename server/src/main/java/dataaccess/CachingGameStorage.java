@@ -0,0 +1,193 @@
+package dataaccess;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import chess.ChessGame;
+import chess.GameCodec;
+
+/**
+ * Keeps recently used games in memory in front of another GameStorage, so
+ * games being played are read and decoded once rather than on every request.
+ * <p>
+ * Cached games are never changed in place. Every request thread is handed
+ * the same Game, so callers must treat it as read-only, and a write replaces
+ * the cached Game with a new one only after the backing storage has accepted
+ * it. The database therefore stays the record of every game, and no reader
+ * sees a change that has not been stored. When a write fails the game is
+ * dropped from the cache. Once more than the capacity are held, the least
+ * recently used game is dropped.
+ */
+public class CachingGameStorage implements GameStorage {
+    private final GameStorage storage;
+    private final LinkedHashMap<Integer, Game> games;
+    // Reads of each game from the backing storage still in progress. A write
+    // to that game marks them stale so they do not cache what they read from
+    // before the write.
+    private final Map<Integer, Load> loads = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    public CachingGameStorage(GameStorage storage, int capacity) {
+        if (capacity < 1){
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.storage = storage;
+        this.games = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Game> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the game, shared with other callers, so it must not be changed
+     */
+    @Override
+    public Game getGame(int gameID) throws DataAccessException {
+        Load load;
+        synchronized (this) {
+            Game game = games.get(gameID);
+            if (game != null){
+                hits++;
+                return game;
+            }
+            misses++;
+            load = loads.computeIfAbsent(gameID, id -> new Load());
+            load.readers++;
+        }
+        Game game = null;
+        try {
+            game = storage.getGame(gameID);
+            return game;
+        } finally {
+            synchronized (this) {
+                if (--load.readers == 0){
+                    loads.remove(gameID);
+                }
+                if (game != null && !load.stale){
+                    games.putIfAbsent(gameID, game);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void updateGame(int gameID, String username, String color) throws DataAccessException {
+        try {
+            storage.updateGame(gameID, username, color);
+        } catch (DataAccessException | RuntimeException e) {
+            evict(gameID);
+            throw e;
+        }
+        synchronized (this) {
+            markStale(gameID);
+            Game cached = games.get(gameID);
+            if (cached != null){
+                Game updated = copy(cached);
+                if (color.equalsIgnoreCase("WHITE")){
+                    updated.whiteUsername = username;
+                } else {
+                    updated.blackUsername = username;
+                }
+                games.put(gameID, updated);
+            }
+        }
+    }
+
+    @Override
+    public void updateGameState(int gameID, ChessGame gameState) throws DataAccessException {
+        try {
+            storage.updateGameState(gameID, gameState);
+        } catch (DataAccessException | RuntimeException e) {
+            evict(gameID);
+            throw e;
+        }
+        // The caller keeps its own game to play on, so cache a copy of what was stored
+        ChessGame stored = GameCodec.decode(GameCodec.encode(gameState));
+        synchronized (this) {
+            markStale(gameID);
+            Game cached = games.get(gameID);
+            if (cached != null){
+                Game updated = copy(cached);
+                updated.gameState = stored;
+                games.put(gameID, updated);
+            }
+        }
+    }
+
+    @Override
+    public String addGame(String gameName) throws DataAccessException {
+        return storage.addGame(gameName);
+    }
+
+    /**
+     * Lists games from the backing storage, since the cache only holds the
+     * games that have been opened
+     */
+    @Override
+    public List<Game> getAllGames() throws DataAccessException {
+        return storage.getAllGames();
+    }
+
+    @Override
+    public void clearAllGames() throws DataAccessException {
+        try {
+            storage.clearAllGames();
+        } finally {
+            synchronized (this) {
+                loads.values().forEach(load -> load.stale = true);
+                games.clear();
+            }
+        }
+    }
+
+    /**
+     * @return games served from memory since the cache was made
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return games read from the backing storage since the cache was made
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return games held in memory now
+     */
+    public synchronized int size() {
+        return games.size();
+    }
+
+    private synchronized void evict(int gameID) {
+        markStale(gameID);
+        games.remove(gameID);
+    }
+
+    private void markStale(int gameID) {
+        Load load = loads.get(gameID);
+        if (load != null){
+            load.stale = true;
+        }
+    }
+
+    private static Game copy(Game game) {
+        Game copy = new Game(game.gameID, game.gameName);
+        copy.whiteUsername = game.whiteUsername;
+        copy.blackUsername = game.blackUsername;
+        copy.gameState = game.gameState;
+        return copy;
+    }
+
+    private static final class Load {
+        private int readers;
+        private boolean stale;
+    }
+}
@@ -0,0 +1,484 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of JDBC connections, so a query borrows a connection that
+ * is already open instead of paying for a new MySQL handshake.
+ * <p>
+ * Borrowed connections are proxies whose close() hands the real connection
+ * back to the pool, so callers keep using try-with-resources exactly as they
+ * would with DriverManager. A connection that has been idle for a while is
+ * checked with isValid() before it is handed out. Connections idle longer
+ * than the idle timeout, or older than the max lifetime, are closed, either
+ * when they would next be borrowed or by a background sweep. A connection
+ * that reported a connection-level error (SQL state class 08) is closed
+ * instead of returned.
+ * <p>
+ * Each pooled connection also keeps a {@link StatementCache}, so
+ * prepareStatement(sql) on a borrowed connection reuses the statement the
+ * connection prepared for that SQL on an earlier borrow.
+ */
+public class ConnectionPool implements AutoCloseable {
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionSource {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * Pool sizing and timeouts, all in milliseconds except the validation timeout
+     *
+     * @param maxSize             most connections open at once, borrowed or idle
+     * @param connectionTimeout   how long a borrower waits for a connection before giving up
+     * @param idleTimeout         how long a connection may sit unused before it is closed
+     * @param maxLifetime         how long a connection is kept at all, so the server's
+     *                            wait_timeout never closes one underneath us
+     * @param validationThreshold a connection idle at least this long is checked before use
+     * @param validationTimeout   seconds allowed for that check
+     * @param statementCacheSize  prepared statements kept per connection, or 0 for none
+     */
+    public record Settings(int maxSize, long connectionTimeout, long idleTimeout, long maxLifetime,
+                           long validationThreshold, int validationTimeout, int statementCacheSize) {
+        public static final Settings DEFAULT = new Settings(10, 30_000, 600_000, 1_800_000, 500, 2, 32);
+
+        public Settings {
+            if (maxSize < 1 || connectionTimeout < 0 || idleTimeout < 1 || maxLifetime < 1
+                    || validationThreshold < 0 || validationTimeout < 0 || statementCacheSize < 0){
+                throw new IllegalArgumentException("Invalid connection pool settings");
+            }
+        }
+
+        /**
+         * Reads db.pool.maxSize, db.pool.connectionTimeout, db.pool.idleTimeout,
+         * db.pool.maxLifetime, db.pool.validationThreshold,
+         * db.pool.validationTimeout and db.pool.statementCacheSize, using the
+         * default for any that are missing
+         */
+        public static Settings from(Properties props) {
+            return new Settings(
+                    Integer.parseInt(props.getProperty("db.pool.maxSize", String.valueOf(DEFAULT.maxSize))),
+                    Long.parseLong(props.getProperty("db.pool.connectionTimeout", String.valueOf(DEFAULT.connectionTimeout))),
+                    Long.parseLong(props.getProperty("db.pool.idleTimeout", String.valueOf(DEFAULT.idleTimeout))),
+                    Long.parseLong(props.getProperty("db.pool.maxLifetime", String.valueOf(DEFAULT.maxLifetime))),
+                    Long.parseLong(props.getProperty("db.pool.validationThreshold", String.valueOf(DEFAULT.validationThreshold))),
+                    Integer.parseInt(props.getProperty("db.pool.validationTimeout", String.valueOf(DEFAULT.validationTimeout))),
+                    Integer.parseInt(props.getProperty("db.pool.statementCacheSize", String.valueOf(DEFAULT.statementCacheSize))));
+        }
+    }
+
+    /**
+     * A snapshot of the pool's counters
+     *
+     * @param open       connections open now, borrowed or idle
+     * @param idle       connections waiting in the pool
+     * @param waiting    threads blocked waiting for a connection
+     * @param borrows    connections handed out
+     * @param created    physical connections opened
+     * @param closed     physical connections closed for age, idleness, failed validation or errors
+     * @param timeouts   borrows that gave up waiting
+     * @param totalWait  nanoseconds borrowers have spent waiting, summed
+     * @param maxWait    longest single wait in nanoseconds
+     * @param statementHits   prepareStatement calls served from a connection's statement cache
+     * @param statementMisses prepareStatement calls that prepared a new statement
+     */
+    public record Stats(int open, int idle, int waiting, long borrows, long created, long closed,
+                        long timeouts, long totalWait, long maxWait, long statementHits, long statementMisses) {
+        /**
+         * @return mean wait per borrow in milliseconds
+         */
+        public double meanWaitMillis() {
+            return borrows == 0 ? 0 : totalWait / 1e6 / borrows;
+        }
+
+        /**
+         * @return the fraction of prepareStatement calls served from cache
+         */
+        public double statementHitRate() {
+            long lookups = statementHits + statementMisses;
+            return lookups == 0 ? 0 : (double) statementHits / lookups;
+        }
+    }
+
+    private final ConnectionSource source;
+    private final Settings settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    // Most recently returned last, so the busy end of the deque stays warm and
+    // the cold end is left to age out
+    private final ArrayDeque<Entry> idle = new ArrayDeque<>();
+    private Thread sweeper;
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private int open;
+    private int waiting;
+    private boolean shutdown;
+    private long borrows;
+    private long created;
+    private long closed;
+    private long timeouts;
+    private long totalWait;
+    private long maxWait;
+
+    private ConnectionPool(ConnectionSource source, Settings settings) {
+        this.source = source;
+        this.settings = settings;
+    }
+
+    /**
+     * Makes a pool and starts the background thread that sweeps out idle and
+     * old connections
+     */
+    public static ConnectionPool open(ConnectionSource source, Settings settings) {
+        ConnectionPool pool = new ConnectionPool(source, settings);
+        long period = Math.max(Math.min(Math.min(settings.idleTimeout, settings.maxLifetime) / 2, 30_000), 10);
+        pool.sweeper = Thread.ofPlatform().daemon().name("connection-pool-sweeper").start(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()){
+                    Thread.sleep(period);
+                    pool.sweep();
+                }
+            } catch (InterruptedException e) {
+                // Pool closed
+            }
+        });
+        return pool;
+    }
+
+    /**
+     * Borrows a connection, opening a new one if none are idle and the pool
+     * is not full, or otherwise waiting up to the connection timeout for one
+     * to be returned. Close the connection to return it.
+     *
+     * @throws SQLException if no connection became available in time, the pool
+     *                      is closed, or opening a connection failed
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(settings.connectionTimeout);
+        while (true){
+            Entry entry = null;
+            boolean create = false;
+            List<Entry> stale = new ArrayList<>();
+            lock.lock();
+            try {
+                while (true){
+                    if (shutdown){
+                        throw new SQLException("Connection pool is closed", "08003");
+                    }
+                    long now = System.currentTimeMillis();
+                    while (!idle.isEmpty() && entry == null){
+                        Entry candidate = idle.pollLast();
+                        if (candidate.expired(now, settings)){
+                            open--;
+                            closed++;
+                            stale.add(candidate);
+                        } else {
+                            entry = candidate;
+                        }
+                    }
+                    if (entry != null){
+                        break;
+                    }
+                    if (open < settings.maxSize){
+                        open++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0){
+                        timeouts++;
+                        throw new SQLException("Timed out after " + settings.connectionTimeout
+                                + " ms waiting for a database connection", "08001");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted waiting for a database connection", "08001", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+                closeAll(stale);
+            }
+
+            if (create){
+                try {
+                    Connection connection = source.open();
+                    entry = new Entry(connection, new StatementCache(connection, settings.statementCacheSize,
+                            statementHits, statementMisses));
+                } catch (SQLException | RuntimeException e) {
+                    discard(null);
+                    throw e;
+                }
+                recordBorrow(start, true);
+                return entry.borrow(this);
+            }
+            if (System.currentTimeMillis() - entry.lastUsed < settings.validationThreshold || isValid(entry)){
+                recordBorrow(start, false);
+                return entry.borrow(this);
+            }
+            discard(entry);
+        }
+    }
+
+    /**
+     * @return the pool's counters at this moment
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return new Stats(open, idle.size(), waiting, borrows, created, closed, timeouts, totalWait, maxWait,
+                    statementHits.sum(), statementMisses.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes every idle connection and refuses further borrows. Borrowed
+     * connections are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        List<Entry> all;
+        lock.lock();
+        try {
+            shutdown = true;
+            all = new ArrayList<>(idle);
+            open -= idle.size();
+            closed += idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        sweeper.interrupt();
+        closeAll(all);
+    }
+
+    /**
+     * Closes idle connections that have been unused too long or lived too long
+     */
+    void sweep() {
+        List<Entry> stale = new ArrayList<>();
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            for (Iterator<Entry> it = idle.iterator(); it.hasNext(); ){
+                Entry entry = it.next();
+                if (entry.expired(now, settings)){
+                    it.remove();
+                    open--;
+                    closed++;
+                    stale.add(entry);
+                }
+            }
+            if (!stale.isEmpty()){
+                available.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeAll(stale);
+    }
+
+    private void recordBorrow(long start, boolean create) {
+        long waited = System.nanoTime() - start;
+        lock.lock();
+        try {
+            borrows++;
+            if (create){
+                created++;
+            }
+            totalWait += waited;
+            maxWait = Math.max(maxWait, waited);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isValid(Entry entry) {
+        try {
+            return entry.connection.isValid(settings.validationTimeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Takes a connection back from a borrower, keeping it unless it is broken,
+     * too old, or the pool has closed
+     */
+    private void release(Entry entry, boolean broken) {
+        if (!broken){
+            try {
+                if (!entry.connection.getAutoCommit()){
+                    entry.connection.rollback();
+                    entry.connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                broken = true;
+            }
+        }
+        entry.lastUsed = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (!broken && !shutdown && entry.lastUsed - entry.createdAt < settings.maxLifetime){
+                idle.addLast(entry);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(entry);
+    }
+
+    /**
+     * Gives up a slot in the pool, closing its connection if there is one
+     */
+    private void discard(Entry entry) {
+        lock.lock();
+        try {
+            open--;
+            if (entry != null){
+                closed++;
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null){
+            closeAll(List.of(entry));
+        }
+    }
+
+    private static void closeAll(List<Entry> entries) {
+        for (Entry entry : entries){
+            try {
+                entry.connection.close();
+            } catch (SQLException e) {
+                // Already unusable; nothing more to do
+            }
+        }
+    }
+
+    /**
+     * A physical connection, its ages and its prepared statements
+     */
+    private static final class Entry {
+        private final Connection connection;
+        private final StatementCache statements;
+        private final long createdAt = System.currentTimeMillis();
+        private long lastUsed = createdAt;
+
+        Entry(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+
+        boolean expired(long now, Settings settings) {
+            return now - lastUsed >= settings.idleTimeout || now - createdAt >= settings.maxLifetime;
+        }
+
+        Connection borrow(ConnectionPool pool) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Borrowed(pool, this));
+        }
+    }
+
+    /**
+     * The borrower's view of a connection. Closing it returns the connection
+     * to the pool, and any use after that fails as it would on a closed
+     * connection.
+     */
+    private static final class Borrowed implements InvocationHandler {
+        private final ConnectionPool pool;
+        private final Entry entry;
+        private boolean returned;
+        private boolean broken;
+
+        Borrowed(ConnectionPool pool, Entry entry) {
+            this.pool = pool;
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned){
+                        returned = true;
+                        entry.statements.release();
+                        pool.release(entry, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + entry.connection;
+                default:
+                    break;
+            }
+            if (returned){
+                throw new SQLException("Connection has been returned to the pool", "08003");
+            }
+            try {
+                if (method.getName().equals("prepareStatement") && pool.settings.statementCacheSize > 0){
+                    if (args.length == 1){
+                        return entry.statements.prepare((Connection) proxy, (String) args[0],
+                                Statement.NO_GENERATED_KEYS, this::failed);
+                    }
+                    if (args.length == 2 && args[1] instanceof Integer keys){
+                        return entry.statements.prepare((Connection) proxy, (String) args[0], keys, this::failed);
+                    }
+                }
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sql){
+                    failed(sql);
+                }
+                throw e.getCause();
+            } catch (SQLException e) {
+                failed(e);
+                throw e;
+            }
+        }
+
+        /**
+         * Marks the connection broken if the error was with the connection
+         * itself rather than the SQL
+         */
+        private void failed(SQLException e) {
+            if (e.getSQLState() != null && e.getSQLState().startsWith("08")){
+                broken = true;
+            }
+        }
+    }
+}
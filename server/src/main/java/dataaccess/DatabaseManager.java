@@ -8,6 +8,8 @@ public class DatabaseManager {
     private static final String USER;
     private static final String PASSWORD;
     private static final String CONNECTION_URL;
+    private static final String POOLED_CONNECTION_URL;
+    private static final ConnectionPool POOL;
 
     /*
      * Load the database information for the db.properties file.
@@ -27,6 +29,13 @@ public class DatabaseManager {
                 var host = props.getProperty("db.host");
                 var port = Integer.parseInt(props.getProperty("db.port"));
                 CONNECTION_URL = String.format("jdbc:mysql://%s:%d", host, port);
+                var settings = ConnectionPool.Settings.from(props);
+                // The pool keeps prepared statements open across borrows, so have
+                // MySQL parse them once on the server rather than the driver
+                // substituting parameters into the SQL text on every execute
+                POOLED_CONNECTION_URL = settings.statementCacheSize() > 0
+                        ? CONNECTION_URL + "?useServerPrepStmts=true" : CONNECTION_URL;
+                POOL = ConnectionPool.open(DatabaseManager::openConnection, settings);
             }
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
@@ -71,24 +80,37 @@ public class DatabaseManager {
         }
     }
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * Borrows a connection to the database from the pool, with the catalog set
+     * based upon the properties specified in db.properties. Connections should
+     * be short-lived, and you must close the connection when you are done with
+     * it, which returns it to the pool. The easiest way to do that is with a
+     * try-with-resource block.
      * <br/>
      * <code>
-     * try (var conn = DbInfo.getConnection(databaseName)) {
+     * try (var conn = DatabaseManager.getConnection()) {
      * // execute SQL statements.
      * }
      * </code>
      */
     static Connection getConnection() throws DataAccessException {
         try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            conn.setCatalog(DATABASE_NAME);
-            return conn;
+            return POOL.getConnection();
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
+
+    /**
+     * @return the connection pool's counters, including how long callers
+     * have waited for connections
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(POOLED_CONNECTION_URL, USER, PASSWORD);
+        conn.setCatalog(DATABASE_NAME);
+        return conn;
+    }
 }
@@ -1,8 +1,8 @@
 package dataaccess;
 
-import com.google.gson.Gson;
-
 import chess.ChessGame;
+import chess.ChessJson;
+import chess.GameCodec;
 
 public class Game {
     public final int gameID;
@@ -23,10 +23,35 @@ public class Game {
     }
 
     public String getGameStateJson() {
-        return new Gson().toJson(gameState);
+        return ChessJson.gson().toJson(gameState);
     }
     
     public void setGameStateFromJson(String json) {
-        this.gameState = new Gson().fromJson(json, ChessGame.class);
+        this.gameState = ChessJson.gson().fromJson(json, ChessGame.class);
+    }
+
+    /**
+     * Encodes a game for the gameState column (see GameCodec)
+     */
+    public static String encodeState(ChessGame game) {
+        return GameCodec.encodeToString(game);
+    }
+
+    /**
+     * Decodes the gameState column. Rows written before the binary codec hold
+     * JSON, which always starts with '{' and never appears in Base64, so both
+     * can be read.
+     *
+     * @throws DataAccessException if the value is neither
+     */
+    public static ChessGame decodeState(String state) throws DataAccessException {
+        try {
+            if (state.startsWith("{")){
+                return ChessJson.gson().fromJson(state, ChessGame.class);
+            }
+            return GameCodec.decode(state);
+        } catch (RuntimeException e) {
+            throw new DataAccessException("Unreadable game state: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package dataaccess;
 import java.util.*;
 
+import chess.ChessGame;
+
 
 public interface GameStorage {
     String addGame(String gameName) throws DataAccessException;
@@ -8,5 +10,6 @@ public interface GameStorage {
     List<Game> getAllGames() throws DataAccessException;
     Game getGame(int gameID) throws DataAccessException;
     void updateGame(int gameID, String username, String color) throws DataAccessException;
+    void updateGameState(int gameID, ChessGame game) throws DataAccessException;
 
 }
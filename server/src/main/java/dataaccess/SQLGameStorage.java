@@ -4,8 +4,6 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.google.gson.Gson;
-
 import chess.ChessGame;
 
 public class SQLGameStorage implements GameStorage {
@@ -43,11 +41,8 @@ public class SQLGameStorage implements GameStorage {
             ChessGame newGame = new ChessGame();
             newGame.getBoard().resetBoard();
             
-            // Serialize to JSON
-            String gameStateJson = new Gson().toJson(newGame);
-            
             stmt.setString(1, gameName);
-            stmt.setString(2, gameStateJson); // Store as JSON
+            stmt.setString(2, Game.encodeState(newGame));
             
             stmt.executeUpdate();
             
@@ -75,9 +70,9 @@ public class SQLGameStorage implements GameStorage {
                 game.whiteUsername = rs.getString("whiteUsername");
                 game.blackUsername = rs.getString("blackUsername");
                 
-                String gameStateJson = rs.getString("gameState");
-                if (gameStateJson != null && !gameStateJson.isEmpty()) {
-                    game.gameState = new Gson().fromJson(gameStateJson, ChessGame.class);
+                String gameState = rs.getString("gameState");
+                if (gameState != null && !gameState.isEmpty()) {
+                    game.gameState = Game.decodeState(gameState);
                 } else {
                     // Fallback to new game if state is invalid
                     game.gameState = new ChessGame();
@@ -125,12 +120,13 @@ public class SQLGameStorage implements GameStorage {
         return games;
     }
 
-    public void updateGameState(String gameID, ChessGame game) throws DataAccessException {
+    @Override
+    public void updateGameState(int gameID, ChessGame game) throws DataAccessException {
         String query = "UPDATE games SET gameState = ? WHERE gameID = ?";
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, new Gson().toJson(game));
-            stmt.setInt(2, Integer.parseInt(gameID));
+            stmt.setString(1, Game.encodeState(game));
+            stmt.setInt(2, gameID);
             stmt.executeUpdate();
         } catch (SQLException e) {
             throw new DataAccessException("Error updating game state: " + e.getMessage());
@@ -0,0 +1,189 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The prepared statements of one pooled connection, kept open across borrows
+ * so each SQL string is prepared once per connection rather than once per
+ * query.
+ * <p>
+ * Borrowers get proxies whose close() resets the statement and leaves it in
+ * the cache. When there are more statements than the capacity, the least
+ * recently used idle one is closed. If the same SQL is prepared again while
+ * its cached statement is still open, the second one is prepared normally
+ * and really closed. Like the connection it belongs to, a cache is only
+ * used by one thread at a time.
+ */
+final class StatementCache {
+    private record Key(String sql, int autoGeneratedKeys) {
+    }
+
+    private final Connection connection;
+    private final int capacity;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LinkedHashMap<Key, Cached> statements = new LinkedHashMap<>(16, 0.75f, true);
+    // Handed out during the current borrow, so they can be reset when it ends
+    private final List<Handle> handles = new ArrayList<>();
+
+    StatementCache(Connection connection, int capacity, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * @return the cached statement for this SQL, preparing it on a miss
+     */
+    PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys, Consumer<SQLException> onError)
+            throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        Cached cached = statements.get(key);
+        if (cached == null){
+            misses.increment();
+            cached = new Cached(key, connection.prepareStatement(sql, autoGeneratedKeys));
+            cached.inUse = true;
+            statements.put(key, cached);
+            evict();
+        } else if (cached.inUse){
+            misses.increment();
+            cached = new Cached(null, connection.prepareStatement(sql, autoGeneratedKeys));
+        } else {
+            hits.increment();
+            cached.inUse = true;
+        }
+        Handle handle = new Handle(cached, owner, onError);
+        handles.add(handle);
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, handle);
+    }
+
+    /**
+     * Takes back every statement the borrower left open
+     */
+    void release() {
+        for (Handle handle : handles){
+            handle.close();
+        }
+        handles.clear();
+    }
+
+    private void evict() {
+        for (Iterator<Cached> it = statements.values().iterator(); it.hasNext() && statements.size() > capacity; ){
+            Cached cached = it.next();
+            if (!cached.inUse){
+                it.remove();
+                closeQuietly(cached.statement);
+            }
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // The statement is being thrown away anyway
+        }
+    }
+
+    private static final class Cached {
+        private final Key key;
+        private final PreparedStatement statement;
+        private boolean inUse;
+
+        Cached(Key key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * The borrower's view of a cached statement
+     */
+    private final class Handle implements InvocationHandler {
+        private final Cached cached;
+        private final Connection owner;
+        private final Consumer<SQLException> onError;
+        private boolean returned;
+
+        Handle(Cached cached, Connection owner, Consumer<SQLException> onError) {
+            this.cached = cached;
+            this.owner = owner;
+            this.onError = onError;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return returned || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + cached.statement;
+                default:
+                    break;
+            }
+            if (returned){
+                throw new SQLException("Statement is closed", "S1009");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sql){
+                    onError.accept(sql);
+                }
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Puts the statement back as a fresh borrower would expect it, or
+         * closes it if it is not cached or cannot be reset
+         */
+        void close() {
+            if (returned){
+                return;
+            }
+            returned = true;
+            if (cached.key == null){
+                closeQuietly(cached.statement);
+                return;
+            }
+            try {
+                ResultSet results = cached.statement.getResultSet();
+                if (results != null){
+                    results.close();
+                }
+                cached.statement.clearParameters();
+                cached.statement.clearWarnings();
+                cached.inUse = false;
+            } catch (SQLException e) {
+                statements.remove(cached.key);
+                closeQuietly(cached.statement);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package server;
 
 import com.google.gson.Gson;
+import chess.ChessJson;
 
 import dataaccess.*;
 import spark.*;
@@ -8,7 +9,7 @@ import java.util.*;
 
 public class CreateGame{
     public static int gameIDCounter = 1;
-    public static Gson gson = new Gson();
+    public static Gson gson = ChessJson.gson();
     private final GameStorage gameStorage;
     public static Set<String> validTokens;
 
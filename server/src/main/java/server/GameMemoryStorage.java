@@ -1,12 +1,13 @@
 package server;
 
 import java.util.*;
+import chess.ChessGame;
 import dataaccess.DataAccessException;
 import dataaccess.Game;
 import dataaccess.GameStorage;
 
 public class GameMemoryStorage implements GameStorage {
-    private final Map<String, Game> games = new HashMap<>();
+    private final Map<Integer, Game> games = new HashMap<>();
     private int nextID = 1;
 
     @Override
@@ -18,7 +19,9 @@ public class GameMemoryStorage implements GameStorage {
     @Override
     public String addGame(String gameName) {
         int gameID = nextID++;
-        games.put(String.valueOf(gameID), new Game(gameID, gameName));
+        Game game = new Game(gameID, gameName);
+        game.gameState = new ChessGame();
+        games.put(gameID, game);
         return String.valueOf(gameID);
     }
 
@@ -43,4 +46,13 @@ public class GameMemoryStorage implements GameStorage {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void updateGameState(int gameID, ChessGame gameState) throws DataAccessException {
+        Game game = games.get(gameID);
+        if (game == null) {
+            throw new DataAccessException("No game with ID " + gameID);
+        }
+        game.gameState = gameState;
+    }
+}
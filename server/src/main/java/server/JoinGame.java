@@ -1,12 +1,13 @@
 package server;
 
 import com.google.gson.Gson;
+import chess.ChessJson;
 import dataaccess.*;
 import spark.*;
 import java.util.*;
 
 public class JoinGame {
-    public static Gson gson = new Gson();
+    public static Gson gson = ChessJson.gson();
     private final GameStorage gameStorage;
     private final Set<String> validTokens;
     private final UserStorage userStorage;
@@ -63,16 +64,11 @@ public class JoinGame {
                 return gson.toJson(Map.of("message", "Error: already taken"));
             }
 
-            // Update game with new player
-            if (playerColor.equals("WHITE")) {
-                game.whiteUsername = username;
-            } else {
-                game.blackUsername = username;
-            }
+            // Update game with new player; the Game from storage may be shared, so it is left as is
             gameStorage.updateGame(gameID, username, playerColor);
 
             response.status(200);
-            return gson.toJson(Map.of("gameID", gameID,"gameState", game.gameState));
+            return gson.toJson(Map.of("gameID", gameID,"gameState", Game.encodeState(game.gameState)));
         } catch (Exception e) {
             response.status(500);
             return gson.toJson(Map.of("message", "Error: " + e.getMessage()));
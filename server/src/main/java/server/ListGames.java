@@ -1,14 +1,14 @@
 package server;
 
 import com.google.gson.Gson;
-
+import chess.ChessJson;
 import dataaccess.GameStorage;
 import spark.*;
 import java.util.*;
 import java.util.stream.*;
 
 public class ListGames{
-    public static Gson gson = new Gson();
+    public static Gson gson = ChessJson.gson();
     private final GameStorage gameStorage;
     public static Set<String> tokens;
     
@@ -1,6 +1,7 @@
 package server;
 
 import com.google.gson.Gson;
+import chess.ChessJson;
 
 import dataaccess.UserStorage;
 import spark.*;
@@ -9,7 +10,7 @@ import java.util.*;
 import org.mindrot.jbcrypt.BCrypt;
 
 public class Login{
-    public static Gson gson = new Gson();
+    public static Gson gson = ChessJson.gson();
     private final UserStorage userStorage;
     private final Set<String> validTokens;
 
@@ -20,7 +21,7 @@ public class Login{
 
     public String login(Request request, Response response) {
         try{
-            User user = new Gson().fromJson(request.body(), User.class);
+            User user = gson.fromJson(request.body(), User.class);
 
             if (user.username == null || user.password == null || user.username.isEmpty() || user.password.isEmpty()) {
                 response.status(400);
@@ -1,13 +1,14 @@
 package server;
 
 import com.google.gson.Gson;
+import chess.ChessJson;
 
 import dataaccess.UserStorage;
 import spark.*;
 import java.util.*;
 
 public class Logout{
-    public static Gson gson = new Gson();
+    public static Gson gson = ChessJson.gson();
     @SuppressWarnings("unused")
     private final UserStorage userStorage;
     public static Set<String> validTokens;
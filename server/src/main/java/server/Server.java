@@ -2,13 +2,16 @@ package server;
 
 import spark.*;
 import com.google.gson.Gson;
+import chess.ChessJson;
 import dataaccess.*;
 import java.util.*;
 public class Server {
     public static GameStorage gameStorage;
     public static UserStorage userStorage;
     public static Set<String> tokens = new HashSet<>();
-    public static Gson gson = new Gson();
+    public static Gson gson = ChessJson.gson();
+    // Games held decoded in memory; enough for every game likely to be in play at once
+    private static final int GAME_CACHE_SIZE = 256;
     public static void main(String[] args) {
         Server server = new Server();
         var port = server.run(8080);
@@ -17,7 +20,7 @@ public class Server {
 
     public int run(int desiredPort) {
         userStorage = new SQLUserStorage();
-        gameStorage = new SQLGameStorage();
+        gameStorage = new CachingGameStorage(new SQLGameStorage(), GAME_CACHE_SIZE);
         Spark.port(desiredPort);
         Spark.staticFiles.location("web");
 
@@ -35,7 +38,7 @@ public class Server {
         Spark.post("/session", (request, response) -> new Login(userStorage, tokens).login(request, response));
         Spark.delete("/session", (request, response) -> new Logout(userStorage, tokens).logout(request, response));
 
-        GameStorage gameStorage = new SQLGameStorage();
+        GameStorage gameStorage = Server.gameStorage;
         Spark.post("/game", (request, response) -> new CreateGame(gameStorage, tokens).create(request, response));
         Spark.get("/game", (request, response) -> new ListGames(gameStorage, tokens).list(request, response));
         Spark.put("/game", (request, response) -> new JoinGame(gameStorage, tokens, userStorage).join(request, response));
@@ -1,6 +1,7 @@
 package server;
 
 import com.google.gson.Gson;
+import chess.ChessJson;
 import dataaccess.UserStorage;
 import org.mindrot.jbcrypt.BCrypt;
 import spark.Request;
@@ -10,7 +11,7 @@ import java.util.Map;
 import java.util.UUID;
 
 public class UserReg {
-    public static Gson gson = new Gson();
+    public static Gson gson = ChessJson.gson();
     private final UserStorage userStorage;
 
     public UserReg(UserStorage storage) {
@@ -0,0 +1,192 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import server.GameMemoryStorage;
+
+import java.util.List;
+
+public class CachingGameStorageTests {
+    private CountingStorage backing;
+    private CachingGameStorage cache;
+
+    @BeforeEach
+    public void setup() {
+        backing = new CountingStorage();
+        cache = new CachingGameStorage(backing, 2);
+    }
+
+    @Test
+    @DisplayName("Repeated Reads Come From Memory")
+    public void readThrough() throws DataAccessException {
+        int id = Integer.parseInt(cache.addGame("first"));
+
+        Game game = cache.getGame(id);
+        Assertions.assertSame(game, cache.getGame(id));
+        Assertions.assertEquals(1, backing.reads);
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertNull(cache.getGame(99));
+        Assertions.assertNull(cache.getGame(99));
+        Assertions.assertEquals(3, backing.reads, "Missing game was cached");
+    }
+
+    @Test
+    @DisplayName("Writes Reach Storage And The Cached Game")
+    public void writeThrough() throws DataAccessException, InvalidMoveException {
+        int id = Integer.parseInt(cache.addGame("first"));
+        Game game = cache.getGame(id);
+
+        cache.updateGame(id, "alice", "WHITE");
+        ChessGame state = new ChessGame();
+        state.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        cache.updateGameState(id, state);
+
+        Assertions.assertNull(game.whiteUsername, "Cached game was changed in place");
+        Assertions.assertEquals(new ChessGame().toFEN(), game.gameState.toFEN(), "Cached game was changed in place");
+        Game updated = cache.getGame(id);
+        Assertions.assertEquals("alice", updated.whiteUsername);
+        Assertions.assertEquals(state.toFEN(), updated.gameState.toFEN());
+        Assertions.assertNotSame(state, updated.gameState, "Cache shares the caller's game");
+        Assertions.assertEquals("alice", backing.storage.getGame(id).whiteUsername);
+        Assertions.assertEquals(state.toFEN(), backing.storage.getGame(id).gameState.toFEN());
+        Assertions.assertEquals(1, backing.reads);
+    }
+
+    @Test
+    @DisplayName("Failed Writes Drop The Cached Game")
+    public void failedWrite() throws DataAccessException {
+        int id = Integer.parseInt(cache.addGame("first"));
+        cache.getGame(id);
+        backing.failWrites = true;
+
+        Assertions.assertThrows(DataAccessException.class, () -> cache.updateGame(id, "bob", "BLACK"));
+        backing.failWrites = false;
+        Assertions.assertNull(cache.getGame(id).blackUsername);
+        Assertions.assertEquals(2, backing.reads);
+    }
+
+    @Test
+    @DisplayName("Only Writes To The Same Game Keep A Read From Caching")
+    public void racingWrites() throws DataAccessException {
+        int first = Integer.parseInt(cache.addGame("first"));
+        int second = Integer.parseInt(cache.addGame("second"));
+
+        backing.duringRead = () -> write(second, "alice");
+        cache.getGame(first);
+        backing.duringRead = null;
+        cache.getGame(first);
+        Assertions.assertEquals(1, backing.reads, "Write to another game stopped this one being cached");
+
+        backing.duringRead = () -> write(second, "bob");
+        Game stale = cache.getGame(second);
+        backing.duringRead = null;
+        Assertions.assertEquals("alice", stale.blackUsername);
+        Assertions.assertEquals("bob", cache.getGame(second).blackUsername, "Read from before the write was cached");
+    }
+
+    private void write(int gameID, String username) {
+        try {
+            cache.updateGame(gameID, username, "BLACK");
+        } catch (DataAccessException e) {
+            Assertions.fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Game Is Evicted")
+    public void eviction() throws DataAccessException {
+        int first = Integer.parseInt(cache.addGame("first"));
+        int second = Integer.parseInt(cache.addGame("second"));
+        int third = Integer.parseInt(cache.addGame("third"));
+
+        cache.getGame(first);
+        cache.getGame(second);
+        cache.getGame(first);
+        cache.getGame(third);
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(3, backing.reads);
+
+        cache.getGame(first);
+        Assertions.assertEquals(3, backing.reads);
+        cache.getGame(second);
+        Assertions.assertEquals(4, backing.reads);
+    }
+
+    @Test
+    @DisplayName("Clearing Empties The Cache")
+    public void clear() throws DataAccessException {
+        int id = Integer.parseInt(cache.addGame("first"));
+        cache.getGame(id);
+        cache.clearAllGames();
+
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertNull(cache.getGame(id));
+        Assertions.assertEquals(List.of(), cache.getAllGames());
+    }
+
+    /**
+     * Memory storage that hands out copies, as a database would, and counts reads
+     */
+    private static final class CountingStorage implements GameStorage {
+        private final GameMemoryStorage storage = new GameMemoryStorage();
+        private int reads;
+        private boolean failWrites;
+        // Runs after the game is read, as a write from another request could
+        private Runnable duringRead;
+
+        @Override
+        public String addGame(String gameName) {
+            return storage.addGame(gameName);
+        }
+
+        @Override
+        public void clearAllGames() {
+            storage.clearAllGames();
+        }
+
+        @Override
+        public List<Game> getAllGames() {
+            return storage.getAllGames();
+        }
+
+        @Override
+        public Game getGame(int gameID) {
+            reads++;
+            Game stored = storage.getGame(gameID);
+            if (stored == null){
+                return null;
+            }
+            Game copy = new Game(stored.gameID, stored.gameName);
+            copy.whiteUsername = stored.whiteUsername;
+            copy.blackUsername = stored.blackUsername;
+            copy.gameState = stored.gameState;
+            if (duringRead != null){
+                duringRead.run();
+            }
+            return copy;
+        }
+
+        @Override
+        public void updateGame(int gameID, String username, String color) throws DataAccessException {
+            if (failWrites){
+                throw new DataAccessException("Database unavailable");
+            }
+            storage.updateGame(gameID, username, color);
+        }
+
+        @Override
+        public void updateGameState(int gameID, ChessGame game) throws DataAccessException {
+            if (failWrites){
+                throw new DataAccessException("Database unavailable");
+            }
+            storage.updateGameState(gameID, game);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package dataaccess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConnectionPoolTests {
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    @Test
+    @DisplayName("Closing Returns The Connection For Reuse")
+    public void reuse() throws SQLException {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 1000, 60_000, 60_000, 60_000, 1, 0))) {
+            Connection first = pool.getConnection();
+            first.close();
+            Assertions.assertTrue(first.isClosed());
+            Assertions.assertThrows(SQLException.class, first::getAutoCommit);
+            first.close();
+
+            pool.getConnection().close();
+            Assertions.assertEquals(1, opened.size());
+            ConnectionPool.Stats stats = pool.getStats();
+            Assertions.assertEquals(2, stats.borrows());
+            Assertions.assertEquals(1, stats.created());
+            Assertions.assertEquals(1, stats.idle());
+        }
+    }
+
+    @Test
+    @DisplayName("Borrowers Wait When The Pool Is Full")
+    public void bounded() throws Exception {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(1, 5000, 60_000, 60_000, 60_000, 1, 0))) {
+            Connection held = pool.getConnection();
+            CountDownLatch asking = new CountDownLatch(1);
+            CountDownLatch borrowed = new CountDownLatch(1);
+            Thread waiter = new Thread(() -> {
+                asking.countDown();
+                try {
+                    Connection conn = pool.getConnection();
+                    borrowed.countDown();
+                    conn.close();
+                } catch (SQLException e) {
+                    Assertions.fail(e);
+                }
+            });
+            waiter.start();
+            Assertions.assertTrue(asking.await(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(borrowed.await(100, TimeUnit.MILLISECONDS), "Pool went over its maximum size");
+            held.close();
+            Assertions.assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+            waiter.join();
+            Assertions.assertEquals(1, opened.size());
+            Assertions.assertTrue(pool.getStats().maxWait() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Times Out When No Connection Is Returned")
+    public void timeout() throws SQLException {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(1, 50, 60_000, 60_000, 60_000, 1, 0))) {
+            Connection held = pool.getConnection();
+            Assertions.assertThrows(SQLException.class, pool::getConnection);
+            Assertions.assertEquals(1, pool.getStats().timeouts());
+            held.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid Connections Are Replaced")
+    public void validation() throws SQLException {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 1000, 60_000, 60_000, 0, 1, 0))) {
+            pool.getConnection().close();
+            opened.get(0).valid.set(false);
+
+            pool.getConnection().close();
+            Assertions.assertEquals(2, opened.size());
+            Assertions.assertTrue(opened.get(0).closed.get());
+            Assertions.assertEquals(1, pool.getStats().closed());
+        }
+    }
+
+    @Test
+    @DisplayName("Idle And Old Connections Are Closed")
+    public void eviction() throws Exception {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 1000, 20, 60_000, 60_000, 1, 0))) {
+            pool.getConnection().close();
+            Thread.sleep(30);
+            pool.sweep();
+            Assertions.assertTrue(opened.get(0).closed.get());
+            Assertions.assertEquals(0, pool.getStats().open());
+        }
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 1000, 60_000, 20, 60_000, 1, 0))) {
+            Connection old = pool.getConnection();
+            Thread.sleep(30);
+            old.close();
+            Assertions.assertTrue(opened.get(1).closed.get(), "Connection past its lifetime went back in the pool");
+        }
+    }
+
+    @Test
+    @DisplayName("Broken Connections Are Not Returned")
+    public void broken() throws SQLException {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(2, 1000, 60_000, 60_000, 60_000, 1, 0))) {
+            Connection conn = pool.getConnection();
+            opened.get(0).linkDown.set(true);
+            Assertions.assertThrows(SQLException.class, () -> conn.prepareStatement("SELECT 1"));
+            conn.close();
+
+            Assertions.assertTrue(opened.get(0).closed.get());
+            Assertions.assertEquals(0, pool.getStats().open());
+        }
+    }
+
+    @Test
+    @DisplayName("Statements Are Prepared Once Per Connection")
+    public void statementCache() throws SQLException {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(1, 1000, 60_000, 60_000, 60_000, 1, 2))) {
+            String sql = "SELECT username FROM tokens WHERE token = ?";
+            for (int i = 0; i < 3; i++){
+                try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    Assertions.assertSame(conn, stmt.getConnection());
+                    stmt.setString(1, "token" + i);
+                }
+            }
+            FakeConnection fake = opened.get(0);
+            Assertions.assertEquals(1, fake.prepared.get());
+            Assertions.assertEquals(0, fake.statementsClosed.get());
+            Assertions.assertEquals(3, fake.parametersCleared.get());
+            Assertions.assertEquals(2, pool.getStats().statementHits());
+            Assertions.assertEquals(1, pool.getStats().statementMisses());
+
+            try (Connection conn = pool.getConnection()) {
+                PreparedStatement first = conn.prepareStatement(sql);
+                PreparedStatement second = conn.prepareStatement(sql);
+                Assertions.assertNotSame(first, second);
+                second.close();
+                Assertions.assertEquals(1, fake.statementsClosed.get(), "Duplicate statement was cached");
+                Assertions.assertThrows(SQLException.class, () -> second.setString(1, "x"));
+            }
+            Assertions.assertEquals(3, pool.getStats().statementHits());
+            Assertions.assertEquals(2, pool.getStats().statementMisses());
+        }
+    }
+
+    @Test
+    @DisplayName("Statement Cache Evicts The Least Recently Used")
+    public void statementEviction() throws SQLException {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(1, 1000, 60_000, 60_000, 60_000, 1, 2))) {
+            try (Connection conn = pool.getConnection()) {
+                conn.prepareStatement("SELECT 1").close();
+                conn.prepareStatement("SELECT 2").close();
+                conn.prepareStatement("SELECT 1").close();
+                conn.prepareStatement("SELECT 3", Statement.RETURN_GENERATED_KEYS).close();
+                Assertions.assertEquals(1, opened.get(0).statementsClosed.get());
+                conn.prepareStatement("SELECT 1").close();
+                conn.prepareStatement("SELECT 3").close();
+            }
+            Assertions.assertEquals(2, pool.getStats().statementHits());
+            Assertions.assertEquals(4, opened.get(0).prepared.get(), "SELECT 1 was evicted instead of SELECT 2");
+            Assertions.assertEquals(2, opened.get(0).statementsClosed.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Broken Statements Break The Connection")
+    public void brokenStatement() throws SQLException {
+        try (ConnectionPool pool = pool(new ConnectionPool.Settings(1, 1000, 60_000, 60_000, 60_000, 1, 2))) {
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+                opened.get(0).linkDown.set(true);
+                Assertions.assertThrows(SQLException.class, stmt::executeQuery);
+            }
+            Assertions.assertTrue(opened.get(0).closed.get());
+            Assertions.assertEquals(0, pool.getStats().open());
+        }
+    }
+
+    @Test
+    @DisplayName("Reads Settings With Defaults")
+    public void settings() {
+        var props = new java.util.Properties();
+        props.setProperty("db.pool.maxSize", "4");
+        ConnectionPool.Settings settings = ConnectionPool.Settings.from(props);
+        Assertions.assertEquals(4, settings.maxSize());
+        Assertions.assertEquals(ConnectionPool.Settings.DEFAULT.idleTimeout(), settings.idleTimeout());
+
+        props.setProperty("db.pool.maxSize", "0");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConnectionPool.Settings.from(props));
+    }
+
+    private ConnectionPool pool(ConnectionPool.Settings settings) {
+        return ConnectionPool.open(() -> {
+            FakeConnection fake = new FakeConnection();
+            synchronized (opened) {
+                opened.add(fake);
+            }
+            return fake.proxy();
+        }, settings);
+    }
+
+    /**
+     * Just enough of a connection to see what the pool does to it
+     */
+    private static final class FakeConnection {
+        final AtomicBoolean valid = new AtomicBoolean(true);
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean linkDown = new AtomicBoolean();
+        final AtomicInteger prepared = new AtomicInteger();
+        final AtomicInteger statementsClosed = new AtomicInteger();
+        final AtomicInteger parametersCleared = new AtomicInteger();
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "isValid" -> valid.get();
+                        case "close" -> {
+                            closed.set(true);
+                            yield null;
+                        }
+                        case "isClosed" -> closed.get();
+                        case "getAutoCommit" -> true;
+                        case "prepareStatement" -> {
+                            checkLink();
+                            prepared.incrementAndGet();
+                            yield statement();
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private PreparedStatement statement() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            statementsClosed.incrementAndGet();
+                            yield null;
+                        }
+                        case "clearParameters" -> {
+                            parametersCleared.incrementAndGet();
+                            yield null;
+                        }
+                        case "getResultSet" -> null;
+                        case "setString", "clearWarnings" -> null;
+                        case "executeQuery" -> {
+                            checkLink();
+                            throw new SQLException("Not supported", "HY000");
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private void checkLink() throws SQLException {
+            if (linkDown.get()){
+                throw new SQLException("Communications link failure", "08S01");
+            }
+        }
+    }
+}
@@ -2,6 +2,9 @@ package chess;
 
 import java.util.*;
 
+import chess.moves.Attacks;
+import chess.moves.Move;
+
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
@@ -9,11 +12,66 @@ import java.util.*;
  * signature of the existing methods.
  */
 public class ChessBoard {
+    // Castling rights, one bit each, as in the FEN castling field
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    // Rights lost when a piece moves from or to each square: moving a king or
+    // rook off its home square, or capturing a rook on it
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[4] = ~(WHITE_KINGSIDE | WHITE_QUEENSIDE) & ALL_CASTLING;
+        CASTLING_MASK[7] = ~WHITE_KINGSIDE & ALL_CASTLING;
+        CASTLING_MASK[0] = ~WHITE_QUEENSIDE & ALL_CASTLING;
+        CASTLING_MASK[60] = ~(BLACK_KINGSIDE | BLACK_QUEENSIDE) & ALL_CASTLING;
+        CASTLING_MASK[63] = ~BLACK_KINGSIDE & ALL_CASTLING;
+        CASTLING_MASK[56] = ~BLACK_QUEENSIDE & ALL_CASTLING;
+    }
+
     private ChessPiece[][] squares = new ChessPiece[8][8];
+    // Rights still held; boards built piece by piece start with all of them
+    private int castlingRights = ALL_CASTLING;
+    // Square a pawn skipped over with a double step on the last move, or -1
+    private int enPassantSquare = -1;
+
+    // Bitboards mirroring squares, one bit per square (see ChessPosition.toSquare).
+    // Transient so Gson only stores squares; built lazily by index() so a board
+    // that Gson filled in behind our back gets re-indexed on first use.
+    private transient long[] pieceMasks;
+    private transient long[] colorMasks;
+    // Zobrist key of the piece placement, kept in step with the masks
+    private transient long pieceKey;
+    // Running piece-square totals for the evaluation (see PieceSquareTables)
+    private transient int midgameScore;
+    private transient int endgameScore;
+    private transient int phase;
+
+    // Undo records for makeMove/unmakeMove, reused so legality probing doesn't allocate
+    private transient Undo[] undoStack;
+    private transient int undoCount;
 
     public ChessBoard() { 
     }
 
+    /**
+     * Copies another board's position. Pieces are immutable so they are
+     * shared; the undo history is not copied.
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        for (int row = 0; row < 8; row++){
+            squares[row] = other.squares[row].clone();
+        }
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -21,7 +79,354 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        setSquare(position.toSquare(), piece);
+    }
+
+    /**
+     * Places a piece on a square by bitboard index, replacing whatever was there
+     *
+     * @param square the square index, 0 to 63
+     * @param piece  the piece to place, or null to empty the square
+     */
+    public void setSquare(int square, ChessPiece piece) {
+        index();
+        ChessPiece old = squares[square >>> 3][square & 7];
+        long bit = 1L << square;
+        if (old != null){
+            pieceMasks[maskIndex(old.getTeamColor(), old.getPieceType())] &= ~bit;
+            colorMasks[old.getTeamColor().ordinal()] &= ~bit;
+            pieceKey ^= Zobrist.piece(old, square);
+            midgameScore -= PieceSquareTables.midgame(old, square);
+            endgameScore -= PieceSquareTables.endgame(old, square);
+            phase -= PieceSquareTables.phase(old);
+        }
+        squares[square >>> 3][square & 7] = piece;
+        if (piece != null){
+            pieceMasks[maskIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+            colorMasks[piece.getTeamColor().ordinal()] |= bit;
+            pieceKey ^= Zobrist.piece(piece, square);
+            midgameScore += PieceSquareTables.midgame(piece, square);
+            endgameScore += PieceSquareTables.endgame(piece, square);
+            phase += PieceSquareTables.phase(piece);
+        }
+    }
+
+    /**
+     * Gets a chess piece by bitboard index
+     *
+     * @param square the square index, 0 to 63
+     * @return the piece on the square, or null if it is empty
+     */
+    public ChessPiece getSquare(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
+    /**
+     * @return mask of the squares holding the given team's pieces of the given type
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        index();
+        return pieceMasks[maskIndex(color, type)];
+    }
+
+    /**
+     * @return mask of the squares holding any of the given team's pieces
+     */
+    public long getPieces(ChessGame.TeamColor color) {
+        index();
+        return colorMasks[color.ordinal()];
+    }
+
+    /**
+     * @return mask of every occupied square
+     */
+    public long getOccupied() {
+        index();
+        return colorMasks[0] | colorMasks[1];
+    }
+
+    /**
+     * Determines whether any piece of the given team attacks a square
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of byColor could capture on position
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(position.toSquare(), byColor);
+    }
+
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        index();
+        int base = byColor.ordinal() * 6;
+        ChessGame.TeamColor defender = byColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if ((Attacks.knight(square) & pieceMasks[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0
+                || (Attacks.king(square) & pieceMasks[base + ChessPiece.PieceType.KING.ordinal()]) != 0
+                || (Attacks.pawn(defender, square) & pieceMasks[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0){
+            return true;
+        }
+        long occupied = colorMasks[0] | colorMasks[1];
+        long queens = pieceMasks[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonal = pieceMasks[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        long straight = pieceMasks[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        return (diagonal != 0 && (Attacks.bishop(square, occupied) & diagonal) != 0)
+                || (straight != 0 && (Attacks.rook(square, occupied) & straight) != 0);
+    }
+
+    /**
+     * Applies a move in place, remembering what it overwrote so that
+     * {@link #unmakeMove()} can restore the board exactly. Does not check that
+     * the move is legal.
+     *
+     * @param move the move to apply
+     */
+    public void makeMove(ChessMove move) {
+        makeMove(Move.encode(move));
+    }
+
+    /**
+     * Applies an int-encoded move (see {@link Move}) in place. Does not check
+     * that the move is legal.
+     *
+     * @param move the move to apply
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece moved = getSquare(from);
+
+        if (undoStack == null){
+            undoStack = new Undo[16];
+        } else if (undoCount == undoStack.length){
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+        }
+        Undo undo = undoStack[undoCount];
+        if (undo == null){
+            undo = new Undo();
+            undoStack[undoCount] = undo;
+        }
+        undoCount++;
+        undo.move = move;
+        undo.moved = moved;
+        undo.castlingRights = castlingRights;
+        undo.enPassantSquare = enPassantSquare;
+
+        // Castling and en passant are told apart by the board, not by move
+        // flags, so moves still fit the 16 bits the transposition table keeps
+        ChessPiece.PieceType type = moved.getPieceType();
+        int captureSquare = to;
+        if (type == ChessPiece.PieceType.PAWN && to == enPassantSquare && ((from ^ to) & 7) != 0){
+            // The captured pawn is beside the one taking it, not on the end square
+            captureSquare = (from & 56) | (to & 7);
+        }
+        undo.captured = getSquare(captureSquare);
+        undo.captureSquare = captureSquare;
+        if (captureSquare != to){
+            setSquare(captureSquare, null);
+        }
+
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        setSquare(from, null);
+        setSquare(to, promotion == null ? moved : ChessPiece.of(moved.getTeamColor(), promotion));
+        if (type == ChessPiece.PieceType.KING && (to - from == 2 || from - to == 2)){
+            int rookFrom = to > from ? to + 1 : to - 2;
+            setSquare((from + to) >>> 1, getSquare(rookFrom));
+            setSquare(rookFrom, null);
+        }
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        enPassantSquare = type == ChessPiece.PieceType.PAWN && (from ^ to) == 16 ? (from + to) >>> 1 : -1;
+    }
+
+    /**
+     * Reverts the most recent {@link #makeMove(ChessMove)} that has not been undone yet
+     */
+    public void unmakeMove() {
+        if (undoCount == 0){
+            throw new IllegalStateException("No move to unmake");
+        }
+        Undo undo = undoStack[--undoCount];
+        int from = Move.from(undo.move);
+        int to = Move.to(undo.move);
+        if (undo.captureSquare != to){
+            setSquare(to, null);
+        }
+        setSquare(undo.captureSquare, undo.captured);
+        setSquare(from, undo.moved);
+        if (undo.moved.getPieceType() == ChessPiece.PieceType.KING && (to - from == 2 || from - to == 2)){
+            int rookSquare = (from + to) >>> 1;
+            setSquare(to > from ? to + 1 : to - 2, getSquare(rookSquare));
+            setSquare(rookSquare, null);
+        }
+        castlingRights = undo.castlingRights;
+        enPassantSquare = undo.enPassantSquare;
+        undo.moved = null;
+        undo.captured = null;
+    }
+
+    private static final class Undo {
+        int move;
+        ChessPiece moved;
+        ChessPiece captured;
+        int captureSquare;
+        int castlingRights;
+        int enPassantSquare;
+    }
+
+    /**
+     * @return the castling rights still held, as a combination of
+     * {@link #WHITE_KINGSIDE} and the other flags. A right only says the king
+     * and rook have not moved; castling also needs the path to be clear.
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        if ((castlingRights & ~ALL_CASTLING) != 0){
+            throw new IllegalArgumentException("Unknown castling rights " + castlingRights);
+        }
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * @return the square a pawn skipped over with a double step on the last
+     * move, or -1 if the last move was not one. It is set whether or not an
+     * enemy pawn is there to take en passant.
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        if (enPassantSquare < -1 || enPassantSquare > 63){
+            throw new IllegalArgumentException("Bad en passant square " + enPassantSquare);
+        }
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    /**
+     * Gets the Zobrist key of the position on this board, including castling
+     * rights and the en passant file. The piece part is updated incrementally
+     * by every addPiece and move, so reading it costs a few lookups. The en
+     * passant file only counts when an enemy pawn could actually take, so
+     * positions that differ only in an unusable en passant square share a key.
+     * The side to move is not part of the board; see
+     * {@link ChessGame#getZobristKey()}.
+     *
+     * @return 64-bit hash of the position
+     */
+    public long getZobristKey() {
+        index();
+        long key = pieceKey ^ Zobrist.castling(castlingRights);
+        if (enPassantSquare >= 0 && getEnPassantCapturers() != 0){
+            key ^= Zobrist.enPassant(enPassantSquare & 7);
+        }
+        return key;
+    }
+
+    /**
+     * @return mask of the pawns that could take en passant, ignoring pins,
+     * or 0 if there is no en passant square
+     */
+    public long getEnPassantCapturers() {
+        if (enPassantSquare < 0){
+            return 0;
+        }
+        // The square is on the third rank after a white double step and the sixth after a black one
+        ChessGame.TeamColor pushed = enPassantSquare < 32 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessGame.TeamColor taker = pushed == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        return Attacks.pawn(pushed, enPassantSquare) & getPieces(taker, ChessPiece.PieceType.PAWN);
+    }
+
+    /**
+     * Gets the material and piece-square total for the middlegame, kept up to
+     * date by every addPiece and move like the Zobrist key
+     *
+     * @return centipawns from white's point of view
+     */
+    public int getMidgameScore() {
+        index();
+        return midgameScore;
+    }
+
+    /**
+     * @return the endgame counterpart of {@link #getMidgameScore()}
+     */
+    public int getEndgameScore() {
+        index();
+        return endgameScore;
+    }
+
+    /**
+     * @return how much non-pawn material is left, from
+     * {@link PieceSquareTables#MAX_PHASE} at the start down to 0 with only
+     * kings and pawns; more than the maximum after extra promotions
+     */
+    public int getGamePhase() {
+        index();
+        return phase;
+    }
+
+    /**
+     * @return the square index of the given team's king, or -1 if it has none
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        long king = getPieces(color, ChessPiece.PieceType.KING);
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * @return the position of the given team's king, or null if it has none
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = getKingSquare(color);
+        return square < 0 ? null : ChessPosition.fromSquare(square);
+    }
+
+    /**
+     * Lists the squares holding the given team's pieces without scanning the
+     * empty ones
+     *
+     * @param color the team whose pieces to list
+     * @return positions of that team's pieces, lowest square first
+     */
+    public List<ChessPosition> getPiecePositions(ChessGame.TeamColor color) {
+        long pieces = getPieces(color);
+        List<ChessPosition> positions = new ArrayList<>(Long.bitCount(pieces));
+        while (pieces != 0){
+            positions.add(ChessPosition.fromSquare(Long.numberOfTrailingZeros(pieces)));
+            pieces &= pieces - 1;
+        }
+        return positions;
+    }
+
+    private static int maskIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    private void index() {
+        if (pieceMasks != null){
+            return;
+        }
+        pieceMasks = new long[12];
+        colorMasks = new long[2];
+        pieceKey = 0;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        for (int square = 0; square < 64; square++){
+            ChessPiece piece = squares[square >>> 3][square & 7];
+            if (piece != null){
+                pieceMasks[maskIndex(piece.getTeamColor(), piece.getPieceType())] |= 1L << square;
+                colorMasks[piece.getTeamColor().ordinal()] |= 1L << square;
+                pieceKey ^= Zobrist.piece(piece, square);
+                midgameScore += PieceSquareTables.midgame(piece, square);
+                endgameScore += PieceSquareTables.endgame(piece, square);
+                phase += PieceSquareTables.phase(piece);
+            }
+        }
     }
 
     /**
@@ -34,73 +439,71 @@ public class ChessBoard {
     public ChessPiece getPiece(ChessPosition position) {
         return squares[position.getRow() - 1][position.getColumn() - 1];
     }
-    // In ChessBoard.java
+
+    /**
+     * Replaces the position with one read from FEN. Only the board fields are
+     * used: the piece placement and, if given, the castling rights and en
+     * passant square. Use {@link ChessGame#loadFEN(String)} for the rest.
+     *
+     * @param fen the position
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
     public void loadFEN(String fen) {
-        resetBoard();
-        String[] parts = fen.split(" ");
-        String[] ranks = parts[0].split("/");
-        
-        for (int i = 0; i < 8; i++) {
-            int col = 1;
-            for (char c : ranks[7 - i].toCharArray()) {
-                if (Character.isDigit(c)) {
-                    col += Character.getNumericValue(c);
-                } else {
-                    ChessGame.TeamColor color = Character.isUpperCase(c) ? 
-                        ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
-                    addPiece(new ChessPosition(i + 1, col), 
-                            createPiece(Character.toLowerCase(c), color));
-                    col++;
-                }
-            }
-        }
+        Fen.loadBoard(this, fen);
     }
 
-    private ChessPiece createPiece(char pieceChar, ChessGame.TeamColor color) {
-        return switch (pieceChar) {
-            case 'k' -> new ChessPiece(color, ChessPiece.PieceType.KING);
-            case 'q' -> new ChessPiece(color, ChessPiece.PieceType.QUEEN);
-            case 'r' -> new ChessPiece(color, ChessPiece.PieceType.ROOK);
-            case 'b' -> new ChessPiece(color, ChessPiece.PieceType.BISHOP);
-            case 'n' -> new ChessPiece(color, ChessPiece.PieceType.KNIGHT);
-            case 'p' -> new ChessPiece(color, ChessPiece.PieceType.PAWN);
-            default -> null;
-        };
-    }
     /**
-     * Sets the board to the default starting board
-     * (How the game of chess normally starts)
+     * @return the piece placement field of this board's FEN
      */
-    public void resetBoard() {
-        // Clear the board
+    public String toFEN() {
+        StringBuilder fen = new StringBuilder(72);
+        Fen.writePlacement(this, fen);
+        return fen.toString();
+    }
+
+    void clear() {
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
                 squares[row][col] = null;
             }
         }
+        pieceMasks = null;
+        colorMasks = null;
+        undoCount = 0;
+        castlingRights = 0;
+        enPassantSquare = -1;
+    }
+
+    /**
+     * Sets the board to the default starting board
+     * (How the game of chess normally starts)
+     */
+    public void resetBoard() {
+        clear();
 
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(2, col), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, col), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, col), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, col), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
 
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        castlingRights = ALL_CASTLING;
     }
 
     @Override
@@ -115,9 +518,14 @@ public class ChessBoard {
         return Arrays.deepEquals(squares, that.squares);
     }
 
+    /**
+     * Hashes the pieces only, since equals compares only the squares; boards
+     * that differ just in castling rights or en passant square are equal
+     */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        index();
+        return (int) (pieceKey ^ (pieceKey >>> 32));
     }
 }
 
@@ -1,8 +1,12 @@
 package chess;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
 import chess.ChessGame;
+import chess.moves.Move;
+import chess.moves.MoveGenerator;
+import chess.moves.MoveList;
 
 
 
@@ -15,11 +19,31 @@ import chess.ChessGame;
 public class ChessGame {
     TeamColor currentTurn;
     ChessBoard board;
+    // Moves since the last capture or pawn move, and the number of the
+    // current full move, as in the last two FEN fields
+    int halfmoveClock;
+    int fullmoveNumber;
+    // Zobrist key (see getZobristKey) of the position before each move made
+    // on this game, oldest first. Transient, so a game read back from storage
+    // starts its history at the position it was saved in.
+    private transient long[] history;
+    private transient int historyCount;
 
     public ChessGame() {
         this.currentTurn = TeamColor.WHITE;
         this.board = new ChessBoard();
         this.board.resetBoard();
+        this.fullmoveNumber = 1;
+    }
+
+    /**
+     * Starts a game from a position someone else built, without setting up
+     * a start position first only to throw it away
+     */
+    ChessGame(ChessBoard board, TeamColor currentTurn) {
+        this.currentTurn = currentTurn;
+        this.board = board;
+        this.fullmoveNumber = 1;
     }
 
     /**
@@ -58,20 +82,31 @@ public class ChessGame {
         if (piece == null){
             return null;
         }
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new HashSet<>();
-
-        for(ChessMove move : possibleMoves){
-            ChessBoard copiedBoard = copyBoard(board);
-            applyMoveToBoard(move, copiedBoard);
-            ChessGame tempGame = new ChessGame();
-            tempGame.setBoard(copiedBoard);
-            if (!tempGame.isInCheck(piece.getTeamColor())){
-                validMoves.add(move);
-            }
-        }
+        Collection<ChessMove> validMoves = new ArrayList<>();
+        MoveGenerator.generate(board, piece.getTeamColor(), 1L << startPosition.toSquare(), validMoves);
         return validMoves;
     }
+
+    /**
+     * Gets every legal move for the team whose turn it is
+     *
+     * @return all legal moves, empty if the team is checkmated or stalemated
+     */
+    public Collection<ChessMove> legalMoves() {
+        return legalMoves(currentTurn);
+    }
+
+    /**
+     * Gets every legal move for a team, whether or not it is that team's turn
+     *
+     * @param teamColor the team to generate moves for
+     * @return all legal moves for teamColor
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        Collection<ChessMove> moves = new ArrayList<>();
+        MoveGenerator.generate(board, teamColor, ~0L, moves);
+        return moves;
+    }
     /**
      * Makes a move in a chess game
      *
@@ -88,45 +123,135 @@ public class ChessGame {
         if (piece.getTeamColor() != currentTurn){
             throw new InvalidMoveException("Not the current team's turn");
         }
-        Collection<ChessMove> valid = validMoves(start);
-        if (valid == null || !valid.contains(move)){
+        MoveList valid = new MoveList();
+        MoveGenerator.generate(board, currentTurn, 1L << start.toSquare(), valid);
+        if (!valid.contains(Move.encode(move))){
             throw new InvalidMoveException("Invalid move");
         }
 
-        applyMoveToBoard(move, board);
+        boolean irreversible = piece.getPieceType() == ChessPiece.PieceType.PAWN
+                || board.getPiece(move.getEndPosition()) != null;
+        if (history == null){
+            history = new long[64];
+        } else if (historyCount == history.length){
+            history = Arrays.copyOf(history, historyCount * 2);
+        }
+        history[historyCount++] = getZobristKey();
+        board.makeMove(move);
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+        if (currentTurn == TeamColor.BLACK){
+            fullmoveNumber++;
+        }
         currentTurn = (currentTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
     }
-    private ChessBoard copyBoard(ChessBoard original){
-        ChessBoard copy = new ChessBoard();
-        for (int row = 1; row <= 8; row++){
-            for (int col = 1; col <= 8; col++){
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = original.getPiece(position);
-                if (piece != null){
-                    copy.addPiece(position, new ChessPiece(piece.getTeamColor(), piece.getPieceType()));
-                }
+
+    /**
+     * @return moves made since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return number of the current full move, starting at 1 and going up
+     * after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Counts how many times the current position has stood on the board,
+     * this time included. Only positions since the last capture or pawn
+     * move can match, so the scan goes back at most halfmoveClock plies and
+     * only looks at every other one, where the same side was to move.
+     *
+     * @return 1 if the position is new, 2 on its first repetition, and so on
+     */
+    public int getRepetitionCount() {
+        long key = getZobristKey();
+        int oldest = Math.max(0, historyCount - halfmoveClock);
+        int count = 1;
+        for (int i = historyCount - 2; i >= oldest; i -= 2){
+            if (history[i] == key){
+                count++;
             }
         }
-        return copy;
+        return count;
     }
-    private void applyMoveToBoard(ChessMove move, ChessBoard board){
-        ChessPosition start = move.getStartPosition();
-        ChessPosition end = move.getEndPosition();
-        ChessPiece piece = board.getPiece(start);
-        board.addPiece(start, null);
-        ChessPiece.PieceType promotion = move.getPromotionPiece();
-        if(promotion != null){
-            piece = new ChessPiece(piece.getTeamColor(), promotion);
-        }
-        board.addPiece(end, piece);
+
+    /**
+     * @return True if the current position has occurred three times, so
+     * either side may claim a draw
+     */
+    public boolean isThreefoldRepetition() {
+        return getRepetitionCount() >= 3;
     }
+
+    /**
+     * @return True if fifty moves by each side have passed without a capture
+     * or pawn move, so either side may claim a draw
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * @return True if a draw may be claimed by repetition or the fifty-move
+     * rule. Checkmate and stalemate are separate; see isInCheckmate and
+     * isInStalemate.
+     */
+    public boolean isDrawClaimable() {
+        return isFiftyMoveRule() || isThreefoldRepetition();
+    }
+
+    void setClocks(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Replaces the whole game state with a position in Forsyth-Edwards
+     * Notation: board, side to move, castling rights, en passant square and
+     * both clocks. Fields after the placement may be left off. The game is
+     * left unchanged if the FEN can't be read.
+     *
+     * @param fen the position
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public void loadFEN(String fen) {
+        Fen.load(this, fen);
+    }
+
+    /**
+     * @return the full position in Forsyth-Edwards Notation
+     */
+    public String toFEN() {
+        return Fen.write(this);
+    }
+
+    /**
+     * Replaces the board. The move history starts over from the new position.
+     */
     public void setBoard(ChessBoard board){
         this.board = board;
+        this.historyCount = 0;
     }
 
     public ChessBoard getBoard(){
         return board;
     }
+
+    /**
+     * Gets the Zobrist key of the current position including the side to
+     * move, for keying position caches
+     *
+     * @return 64-bit hash of the position
+     */
+    public long getZobristKey() {
+        long key = board.getZobristKey();
+        return currentTurn == TeamColor.BLACK ? key ^ Zobrist.blackToMove() : key;
+    }
     /**
      * Determines if the given team is in check
      *
@@ -134,46 +259,15 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = null;
-        
-        for (int row = 1; row <= 8; row++){
-            for (int col= 1; col <= 8; col++){
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if(piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING){
-                    kingPosition = new ChessPosition(row, col); break;
-                }
-            }
-        }
-        if (kingPosition == null){
+        int kingSquare = board.getKingSquare(teamColor);
+        if (kingSquare < 0){
             throw new RuntimeException("Error: King is not found check isInCheck Function in ChessGame.java");
         }
-        
-        TeamColor opponentColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
 
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null && piece.getTeamColor() == opponentColor) {
-                    if (threat(piece, new ChessPosition(row, col), kingPosition, board)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-    
-    // Helper function to check if a piece threatens the king
-    private boolean threat(ChessPiece piece, ChessPosition piecePosition, ChessPosition kingPosition, ChessBoard board) {
-        for (ChessMove move : piece.pieceMoves(board, piecePosition)) {
-            if (move.getEndPosition().equals(kingPosition)) {
-                return true;
-            }
-        }
-        return false;
+        TeamColor opponentColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return board.isSquareAttacked(kingSquare, opponentColor);
     }
-    
+
     /**
      * Determines if the given team is in checkmate
      *
@@ -203,19 +297,7 @@ public class ChessGame {
     }
 
     public boolean validMoves(TeamColor teamColor){
-        for (int row = 1; row <= 8; row++){
-            for (int col= 1; col <= 8; col++){
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null && piece.getTeamColor() == teamColor){
-                    Collection<ChessMove> validMoves = validMoves(position);
-                    if (validMoves != null && !validMoves.isEmpty()){
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return legalMoves(teamColor).isEmpty();
     }
 
     /**
@@ -0,0 +1,284 @@
+package chess;
+
+import java.io.IOException;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming Gson adapters for the chess model, so nothing is read or
+ * written by reflection.
+ * <p>
+ * Games and boards are written as FEN text. A game is its full FEN. A board
+ * is its placement, castling and en passant fields, as in
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR KQkq -". A piece is its FEN
+ * letter. Positions and moves keep the object shapes reflection gave them,
+ * {"row":1,"col":5} and {"startPosition":...,"endPosition":...,
+ * "promotionPiece":"QUEEN"}, since clients build those by hand. Every
+ * adapter also reads the reflective shapes written before these adapters
+ * existed.
+ */
+public final class ChessJson {
+    private static final Gson GSON = register(new GsonBuilder()).create();
+
+    private ChessJson() {
+    }
+
+    /**
+     * @return the shared Gson with every chess adapter registered. Gson is
+     * thread-safe, so there is no need for another instance.
+     */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    /**
+     * Registers the chess adapters on a builder, for callers that need other
+     * settings as well
+     *
+     * @return the builder
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        TypeAdapter<ChessPiece> piece = new PieceAdapter().nullSafe();
+        TypeAdapter<ChessPosition> position = new PositionAdapter().nullSafe();
+        TypeAdapter<ChessBoard> board = new BoardAdapter(piece).nullSafe();
+        return builder
+                .registerTypeAdapter(ChessPosition.class, position)
+                .registerTypeAdapter(ChessMove.class, new MoveAdapter(position).nullSafe())
+                .registerTypeAdapter(ChessPiece.class, piece)
+                .registerTypeAdapter(ChessBoard.class, board)
+                .registerTypeAdapter(ChessGame.class, new GameAdapter(board).nullSafe());
+    }
+
+    private static final class PositionAdapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            out.beginObject();
+            out.name("row").value(position.getRow());
+            out.name("col").value(position.getColumn());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            int row = 0;
+            int col = 0;
+            in.beginObject();
+            while (in.hasNext()){
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return ChessPosition.of(row, col);
+        }
+    }
+
+    private static final class MoveAdapter extends TypeAdapter<ChessMove> {
+        private final TypeAdapter<ChessPosition> positions;
+
+        MoveAdapter(TypeAdapter<ChessPosition> positions) {
+            this.positions = positions;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            out.beginObject();
+            out.name("startPosition");
+            positions.write(out, move.getStartPosition());
+            out.name("endPosition");
+            positions.write(out, move.getEndPosition());
+            if (move.getPromotionPiece() != null){
+                out.name("promotionPiece").value(move.getPromotionPiece().name());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            ChessPosition start = null;
+            ChessPosition end = null;
+            ChessPiece.PieceType promotion = null;
+            in.beginObject();
+            while (in.hasNext()){
+                switch (in.nextName()) {
+                    case "startPosition" -> start = positions.read(in);
+                    case "endPosition" -> end = positions.read(in);
+                    case "promotionPiece" -> promotion = readEnum(in, ChessPiece.PieceType.class);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (start == null || end == null){
+                throw new JsonSyntaxException("Move needs a startPosition and an endPosition");
+            }
+            return new ChessMove(start, end, promotion);
+        }
+    }
+
+    private static final class PieceAdapter extends TypeAdapter<ChessPiece> {
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            out.value(String.valueOf(Fen.symbol(piece)));
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.STRING){
+                String symbol = in.nextString();
+                ChessPiece piece = symbol.length() == 1 ? Fen.piece(symbol.charAt(0)) : null;
+                if (piece == null){
+                    throw new JsonSyntaxException("Unknown piece \"" + symbol + "\"");
+                }
+                return piece;
+            }
+            // Reflective shape: {"pieceColor":"WHITE","type":"KING"}
+            ChessGame.TeamColor color = null;
+            ChessPiece.PieceType type = null;
+            in.beginObject();
+            while (in.hasNext()){
+                switch (in.nextName()) {
+                    case "pieceColor" -> color = readEnum(in, ChessGame.TeamColor.class);
+                    case "type" -> type = readEnum(in, ChessPiece.PieceType.class);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (color == null || type == null){
+                throw new JsonSyntaxException("Piece needs a pieceColor and a type");
+            }
+            return ChessPiece.of(color, type);
+        }
+    }
+
+    private static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        private final TypeAdapter<ChessPiece> pieces;
+
+        BoardAdapter(TypeAdapter<ChessPiece> pieces) {
+            this.pieces = pieces;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            out.value(Fen.writeBoard(board));
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            ChessBoard board = new ChessBoard();
+            if (in.peek() == JsonToken.STRING){
+                String text = in.nextString();
+                try {
+                    Fen.loadBoardFields(board, text);
+                } catch (IllegalArgumentException e) {
+                    throw new JsonSyntaxException(e.getMessage(), e);
+                }
+                return board;
+            }
+            // Reflective shape: {"squares":[[...8 pieces or nulls...], ...rank 1 first]}
+            // plus castlingRights and enPassantSquare once those existed
+            in.beginObject();
+            while (in.hasNext()){
+                switch (in.nextName()) {
+                    case "squares" -> readSquares(in, board);
+                    case "castlingRights" -> board.setCastlingRights(in.nextInt());
+                    case "enPassantSquare" -> board.setEnPassantSquare(in.nextInt());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return board;
+        }
+
+        private void readSquares(JsonReader in, ChessBoard board) throws IOException {
+            in.beginArray();
+            for (int row = 0; in.hasNext(); row++){
+                in.beginArray();
+                for (int col = 0; in.hasNext(); col++){
+                    if (in.peek() == JsonToken.NULL){
+                        in.nextNull();
+                    } else if (row < 8 && col < 8){
+                        board.setSquare(row * 8 + col, pieces.read(in));
+                    } else {
+                        throw new JsonSyntaxException("Board squares are not 8 by 8");
+                    }
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+    }
+
+    private static final class GameAdapter extends TypeAdapter<ChessGame> {
+        private final TypeAdapter<ChessBoard> boards;
+
+        GameAdapter(TypeAdapter<ChessBoard> boards) {
+            this.boards = boards;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.value(game.toFEN());
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.STRING){
+                String fen = in.nextString();
+                ChessGame game = new ChessGame(null, ChessGame.TeamColor.WHITE);
+                try {
+                    game.loadFEN(fen);
+                } catch (IllegalArgumentException e) {
+                    throw new JsonSyntaxException(e.getMessage(), e);
+                }
+                return game;
+            }
+            // Reflective shape: {"currentTurn":"WHITE","board":{...}} plus the clocks once those existed
+            ChessBoard board = null;
+            ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+            int halfmoves = 0;
+            int fullmoves = 1;
+            in.beginObject();
+            while (in.hasNext()){
+                switch (in.nextName()) {
+                    case "currentTurn" -> turn = readEnum(in, ChessGame.TeamColor.class);
+                    case "board" -> board = boards.read(in);
+                    case "halfmoveClock" -> halfmoves = in.nextInt();
+                    case "fullmoveNumber" -> fullmoves = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (board == null){
+                board = new ChessBoard();
+                board.resetBoard();
+            }
+            ChessGame game = new ChessGame(board, turn == null ? ChessGame.TeamColor.WHITE : turn);
+            game.setClocks(halfmoves, Math.max(fullmoves, 1));
+            return game;
+        }
+    }
+
+    /**
+     * @return the constant named by the next string, or null for a JSON null
+     */
+    private static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> type) throws IOException {
+        if (in.peek() == JsonToken.NULL){
+            in.nextNull();
+            return null;
+        }
+        String name = in.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonSyntaxException("Unknown " + type.getSimpleName() + " \"" + name + "\"", e);
+        }
+    }
+}
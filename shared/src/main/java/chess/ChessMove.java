@@ -59,6 +59,26 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        int result = Objects.hashCode(startPosition);
+        result = 31 * result + Objects.hashCode(endPosition);
+        return 31 * result + (promotionPiece == null ? 0 : promotionPiece.ordinal() + 1);
+    }
+
+    /**
+     * @return the move in long algebraic notation, e.g. e7e8q
+     */
+    @Override
+    public String toString() {
+        String move = String.valueOf(startPosition) + endPosition;
+        if (promotionPiece == null){
+            return move;
+        }
+        return move + switch (promotionPiece) {
+            case QUEEN -> "q";
+            case ROOK -> "r";
+            case BISHOP -> "b";
+            case KNIGHT -> "n";
+            default -> promotionPiece.name().toLowerCase();
+        };
     }
 }
@@ -11,14 +11,34 @@ import chess.moves.*;
  * signature of the existing methods.
  */
 public class ChessPiece {
-    private ChessGame.TeamColor pieceColor;
-    private PieceType type;
+    // One shared instance per color and type, indexed color * 6 + type
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()){
+            for (PieceType type : PieceType.values()){
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    private final ChessGame.TeamColor pieceColor;
+    private final PieceType type;
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance for a piece instead of allocating one
+     *
+     * @return a piece equal to new ChessPiece(pieceColor, type)
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -93,6 +113,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        int color = pieceColor == null ? 0 : pieceColor.ordinal() + 1;
+        return 31 * color + (type == null ? 0 : type.ordinal() + 1);
     }
 }
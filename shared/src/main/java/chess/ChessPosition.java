@@ -8,13 +8,38 @@ import java.util.*;
  * signature of the existing methods.
  */
 public class ChessPosition {
-    int row;
-    int col;
+    // One shared instance per on-board square, indexed like toSquare()
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++){
+            POSITIONS[square] = new ChessPosition((square >>> 3) + 1, (square & 7) + 1);
+        }
+    }
+
+    final int row;
+    final int col;
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a position instead of allocating one.
+     * Positions off the board are still created fresh so callers can build a
+     * candidate square first and range-check it afterwards.
+     *
+     * @param row the row, 1 to 8
+     * @param col the column, 1 to 8
+     * @return a position equal to new ChessPosition(row, col)
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8){
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[(row - 1) * 8 + (col - 1)];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -31,6 +56,24 @@ public class ChessPosition {
         return col;
     }
 
+    /**
+     * @return the bitboard square index of this position, 0 for (1, 1) up to
+     * 63 for (8, 8)
+     */
+    public int toSquare() {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * Builds the position for a bitboard square index
+     *
+     * @param square index from 0 to 63, as returned by {@link #toSquare()}
+     * @return the matching position
+     */
+    public static ChessPosition fromSquare(int square) {
+        return POSITIONS[square];
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj){
@@ -45,7 +88,15 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
+    }
+
+    /**
+     * @return the square in algebraic notation, e.g. e4 for row 4, column 5
+     */
+    @Override
+    public String toString() {
+        return String.valueOf((char) ('a' + col - 1)) + row;
     }
 
 }
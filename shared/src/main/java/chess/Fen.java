@@ -0,0 +1,302 @@
+package chess;
+
+/**
+ * Reads and writes Forsyth-Edwards Notation. Parsing walks the string once
+ * by index without splitting it, and writing fills a single StringBuilder,
+ * so neither allocates more than the result.
+ * <p>
+ * Fields after the piece placement may be left off; they default to white
+ * to move, no castling, no en passant square and clocks of 0 and 1.
+ */
+final class Fen {
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String PIECES = "KQBNRPkqbnrp";
+    private static final String CASTLING = "KQkq";
+
+    private Fen() {
+    }
+
+    /**
+     * Loads a whole FEN into a game, replacing its board only once the FEN
+     * has been read successfully
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    static void load(ChessGame game, String fen) {
+        ChessBoard board = new ChessBoard();
+        Reader reader = new Reader(fen);
+        reader.placement(board);
+        ChessGame.TeamColor turn = reader.field() ? reader.turn() : ChessGame.TeamColor.WHITE;
+        reader.boardState(board, turn);
+        int halfmoves = reader.field() ? reader.number() : 0;
+        int fullmoves = reader.field() ? reader.number() : 1;
+        if (fullmoves < 1){
+            throw reader.error("move number must be at least 1");
+        }
+        reader.end();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        game.setClocks(halfmoves, fullmoves);
+    }
+
+    /**
+     * Loads the board fields of a FEN (placement, castling rights and en
+     * passant square) into a board, ignoring the side to move and clocks
+     *
+     * @throws IllegalArgumentException if those fields are malformed
+     */
+    static void loadBoard(ChessBoard board, String fen) {
+        Reader reader = new Reader(fen);
+        reader.placement(board);
+        ChessGame.TeamColor turn = reader.field() ? reader.turn() : null;
+        reader.boardState(board, turn);
+    }
+
+    /**
+     * Loads text written by {@link #writeBoard}: the placement, castling and
+     * en passant fields with no side to move or clocks
+     *
+     * @throws IllegalArgumentException if the text is malformed
+     */
+    static void loadBoardFields(ChessBoard board, String text) {
+        Reader reader = new Reader(text);
+        reader.placement(board);
+        reader.boardState(board, null);
+        reader.end();
+    }
+
+    /**
+     * @return the placement, castling and en passant fields of a board,
+     * which is everything a board holds
+     */
+    static String writeBoard(ChessBoard board) {
+        StringBuilder fen = new StringBuilder(80);
+        writePlacement(board, fen);
+        fen.append(' ');
+        writeBoardState(board, fen);
+        return fen.toString();
+    }
+
+    static String write(ChessGame game) {
+        StringBuilder fen = new StringBuilder(90);
+        ChessBoard board = game.getBoard();
+        writePlacement(board, fen);
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        writeBoardState(board, fen);
+        return fen.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber())
+                .toString();
+    }
+
+    static void writePlacement(ChessBoard board, StringBuilder fen) {
+        for (int row = 7; row >= 0; row--){
+            int empty = 0;
+            for (int col = 0; col < 8; col++){
+                ChessPiece piece = board.getSquare(row * 8 + col);
+                if (piece == null){
+                    empty++;
+                    continue;
+                }
+                if (empty > 0){
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(symbol(piece));
+            }
+            if (empty > 0){
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 0){
+                fen.append('/');
+            }
+        }
+    }
+
+    /**
+     * Appends the castling and en passant fields
+     */
+    static void writeBoardState(ChessBoard board, StringBuilder fen) {
+        int rights = board.getCastlingRights();
+        if (rights == 0){
+            fen.append('-');
+        }
+        for (int i = 0; i < 4; i++){
+            if ((rights & 1 << i) != 0){
+                fen.append(CASTLING.charAt(i));
+            }
+        }
+        fen.append(' ');
+        int enPassant = board.getEnPassantSquare();
+        if (enPassant < 0){
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + (enPassant & 7))).append((char) ('1' + (enPassant >>> 3)));
+        }
+    }
+
+    static char symbol(ChessPiece piece) {
+        int index = piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+        return PIECES.charAt(index);
+    }
+
+    /**
+     * @return the piece for a FEN letter, or null if it isn't one
+     */
+    static ChessPiece piece(char symbol) {
+        int index = PIECES.indexOf(symbol);
+        if (index < 0){
+            return null;
+        }
+        return ChessPiece.of(index < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK,
+                ChessPiece.PieceType.values()[index % 6]);
+    }
+
+    /**
+     * A cursor over the FEN text
+     */
+    private static final class Reader {
+        private final String fen;
+        private int index;
+
+        Reader(String fen) {
+            this.fen = fen;
+        }
+
+        void placement(ChessBoard board) {
+            board.clear();
+            int row = 7;
+            int col = 0;
+            while (index < fen.length() && fen.charAt(index) != ' '){
+                char c = fen.charAt(index++);
+                if (c == '/'){
+                    if (col != 8 || row == 0){
+                        throw error("rank " + (row + 1) + " does not have 8 squares");
+                    }
+                    row--;
+                    col = 0;
+                } else if (c >= '1' && c <= '8'){
+                    col += c - '0';
+                    if (col > 8){
+                        throw error("rank " + (row + 1) + " has more than 8 squares");
+                    }
+                } else {
+                    int piece = PIECES.indexOf(c);
+                    if (piece < 0){
+                        throw error("unknown piece '" + c + "'");
+                    }
+                    if (col == 8){
+                        throw error("rank " + (row + 1) + " has more than 8 squares");
+                    }
+                    ChessGame.TeamColor color = piece < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                    board.setSquare(row * 8 + col, ChessPiece.of(color, ChessPiece.PieceType.values()[piece % 6]));
+                    col++;
+                }
+            }
+            if (row != 0 || col != 8){
+                throw error("piece placement does not cover 8 ranks of 8 squares");
+            }
+        }
+
+        /**
+         * Reads the side to move field
+         */
+        ChessGame.TeamColor turn() {
+            return switch (next()) {
+                case 'w' -> ChessGame.TeamColor.WHITE;
+                case 'b' -> ChessGame.TeamColor.BLACK;
+                default -> throw error("side to move must be w or b");
+            };
+        }
+
+        /**
+         * Reads the castling and en passant fields, if present, into the board
+         *
+         * @param turn side to move, or null if unknown
+         */
+        void boardState(ChessBoard board, ChessGame.TeamColor turn) {
+            int rights = 0;
+            if (field() && !dash()){
+                while (index < fen.length() && fen.charAt(index) != ' '){
+                    int right = CASTLING.indexOf(fen.charAt(index++));
+                    if (right < 0 || (rights & 1 << right) != 0){
+                        throw error("castling rights must be - or some of KQkq");
+                    }
+                    rights |= 1 << right;
+                }
+            }
+            board.setCastlingRights(rights);
+
+            int enPassant = -1;
+            if (field() && !dash()){
+                char file = next();
+                char rank = next();
+                int expected = turn == ChessGame.TeamColor.BLACK ? '3' : turn == ChessGame.TeamColor.WHITE ? '6' : 0;
+                if (file < 'a' || file > 'h' || (rank != '3' && rank != '6') || (expected != 0 && rank != expected)){
+                    throw error("bad en passant square");
+                }
+                enPassant = (rank - '1') * 8 + (file - 'a');
+            }
+            board.setEnPassantSquare(enPassant);
+        }
+
+        /**
+         * Steps over the space before the next field
+         *
+         * @return True if there is another field
+         */
+        boolean field() {
+            if (index >= fen.length()){
+                return false;
+            }
+            if (fen.charAt(index) != ' '){
+                throw error("expected a space");
+            }
+            while (index < fen.length() && fen.charAt(index) == ' '){
+                index++;
+            }
+            return index < fen.length();
+        }
+
+        char next() {
+            if (index >= fen.length()){
+                throw error("unexpected end");
+            }
+            return fen.charAt(index++);
+        }
+
+        int number() {
+            int start = index;
+            int value = 0;
+            while (index < fen.length() && fen.charAt(index) >= '0' && fen.charAt(index) <= '9'){
+                value = value * 10 + fen.charAt(index++) - '0';
+                if (value > 100_000){
+                    throw error("move count too large");
+                }
+            }
+            if (index == start){
+                throw error("expected a number");
+            }
+            return value;
+        }
+
+        void end() {
+            while (index < fen.length() && fen.charAt(index) == ' '){
+                index++;
+            }
+            if (index != fen.length()){
+                throw error("unexpected text at the end");
+            }
+        }
+
+        private boolean dash() {
+            if (fen.charAt(index) == '-'){
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        IllegalArgumentException error(String problem) {
+            return new IllegalArgumentException("Invalid FEN \"" + fen + "\": " + problem);
+        }
+    }
+}
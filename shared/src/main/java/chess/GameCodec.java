@@ -0,0 +1,204 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Packs a game into a few dozen bytes for storage and the wire, much
+ * smaller and cheaper to read than reflective JSON of 64 nullable pieces.
+ * <p>
+ * Layout, version 1:
+ * <pre>
+ *   magic     1 byte   0xC5
+ *   version   1 byte   1
+ *   flags     1 byte   bit 0 black to move, bits 4-7 castling rights
+ *   passant   1 byte   en passant square, or 64 for none
+ *   halfmove  varint   halfmove clock
+ *   fullmove  varint   fullmove number
+ *   occupied  8 bytes  bitboard of occupied squares, big-endian
+ *   pieces    nibbles  one per occupied square, lowest square first, two to
+ *                      a byte with the high nibble first; the nibble is
+ *                      color ordinal * 6 + type ordinal, and an odd count is
+ *                      padded with 0xF
+ * </pre>
+ * The start position takes 30 bytes. A reader must reject versions it
+ * does not know; new layouts get a new version number.
+ */
+public final class GameCodec {
+    public static final int VERSION = 1;
+
+    private static final byte MAGIC = (byte) 0xC5;
+    private static final int NO_EN_PASSANT = 64;
+    // Header and both clocks at their longest, occupancy, and a piece on
+    // every square, since boards built by hand need not be legal
+    private static final int MAX_SIZE = 4 + 5 + 5 + 8 + 32;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private GameCodec() {
+    }
+
+    /**
+     * @return the game's position, side to move, castling rights, en passant
+     * square and clocks in the binary layout. Move history is not included.
+     */
+    public static byte[] encode(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        byte[] out = new byte[MAX_SIZE];
+        out[0] = MAGIC;
+        out[1] = VERSION;
+        out[2] = (byte) ((game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0) | board.getCastlingRights() << 4);
+        int enPassant = board.getEnPassantSquare();
+        out[3] = (byte) (enPassant < 0 ? NO_EN_PASSANT : enPassant);
+        int at = writeVarint(out, 4, game.getHalfmoveClock());
+        at = writeVarint(out, at, game.getFullmoveNumber());
+
+        long occupied = board.getOccupied();
+        for (int shift = 56; shift >= 0; shift -= 8){
+            out[at++] = (byte) (occupied >>> shift);
+        }
+        boolean high = true;
+        while (occupied != 0){
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            ChessPiece piece = board.getSquare(square);
+            int nibble = piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+            if (high){
+                out[at] = (byte) (nibble << 4);
+            } else {
+                out[at++] |= (byte) nibble;
+            }
+            high = !high;
+        }
+        if (!high){
+            out[at++] |= 0xF;
+        }
+        return Arrays.copyOf(out, at);
+    }
+
+    /**
+     * Reads a game written by {@link #encode}
+     *
+     * @throws IllegalArgumentException if the bytes are not a game in a
+     *                                  version this class knows
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes.length < 4 || bytes[0] != MAGIC){
+            throw new IllegalArgumentException("Not an encoded chess game");
+        }
+        if (bytes[1] != VERSION){
+            throw new IllegalArgumentException("Unknown game encoding version " + (bytes[1] & 0xFF));
+        }
+        int flags = bytes[2] & 0xFF;
+        int enPassant = bytes[3] & 0xFF;
+        if ((flags & 0x0E) != 0 || enPassant > NO_EN_PASSANT){
+            throw new IllegalArgumentException("Corrupt game encoding header");
+        }
+        Reader reader = new Reader(bytes, 4);
+        int halfmoves = reader.varint();
+        int fullmoves = reader.varint();
+        if (fullmoves < 1){
+            throw new IllegalArgumentException("Corrupt move number in game encoding");
+        }
+        long occupied = 0;
+        for (int i = 0; i < 8; i++){
+            occupied = occupied << 8 | reader.next();
+        }
+
+        ChessBoard board = new ChessBoard();
+        int count = Long.bitCount(occupied);
+        int packed = 0;
+        for (int i = 0; i < count; i++){
+            int nibble;
+            if ((i & 1) == 0){
+                packed = reader.next();
+                nibble = packed >>> 4;
+            } else {
+                nibble = packed & 0xF;
+            }
+            if (nibble >= 12){
+                throw new IllegalArgumentException("Corrupt piece in game encoding");
+            }
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            ChessGame.TeamColor color = nibble < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            board.setSquare(square, ChessPiece.of(color, TYPES[nibble % 6]));
+        }
+        if ((count & 1) != 0 && (packed & 0xF) != 0xF){
+            throw new IllegalArgumentException("Corrupt padding in game encoding");
+        }
+        reader.end();
+        board.setCastlingRights(flags >>> 4);
+        board.setEnPassantSquare(enPassant == NO_EN_PASSANT ? -1 : enPassant);
+
+        ChessGame game = new ChessGame(board,
+                (flags & 1) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setClocks(halfmoves, fullmoves);
+        return game;
+    }
+
+    /**
+     * @return {@link #encode} as Base64 text, for text columns and JSON fields
+     */
+    public static String encodeToString(ChessGame game) {
+        return Base64.getEncoder().encodeToString(encode(game));
+    }
+
+    /**
+     * Reads a game written by {@link #encodeToString}
+     *
+     * @throws IllegalArgumentException if the text is not Base64 of an encoded game
+     */
+    public static ChessGame decode(String text) {
+        return decode(Base64.getDecoder().decode(text));
+    }
+
+    private static int writeVarint(byte[] out, int at, int value) {
+        while ((value & ~0x7F) != 0){
+            out[at++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out[at++] = (byte) value;
+        return at;
+    }
+
+    /**
+     * A cursor over the encoded bytes that fails cleanly on truncated input
+     */
+    private static final class Reader {
+        private final byte[] bytes;
+        private int at;
+
+        Reader(byte[] bytes, int at) {
+            this.bytes = bytes;
+            this.at = at;
+        }
+
+        int next() {
+            if (at >= bytes.length){
+                throw new IllegalArgumentException("Truncated game encoding");
+            }
+            return bytes[at++] & 0xFF;
+        }
+
+        int varint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7){
+                int b = next();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0){
+                    if (value < 0){
+                        break;
+                    }
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Corrupt clock in game encoding");
+        }
+
+        void end() {
+            if (at != bytes.length){
+                throw new IllegalArgumentException("Trailing bytes after game encoding");
+            }
+        }
+    }
+}
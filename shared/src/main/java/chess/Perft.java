@@ -0,0 +1,120 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import chess.moves.Move;
+import chess.moves.MoveGenerator;
+import chess.moves.MoveList;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth. The counts
+ * for well known positions are published, which makes perft both a
+ * correctness check for the move generator and a throughput benchmark.
+ * <p>
+ * Run as a command: {@code Perft <depth> [FEN]}. It prints the node count
+ * under each root move, then the total and the nodes per second.
+ */
+public class Perft {
+    private final ChessBoard board;
+    private final MoveList[] lists;
+
+    private Perft(ChessBoard board, int depth) {
+        this.board = board;
+        this.lists = new MoveList[Math.max(depth, 1)];
+        for (int i = 0; i < lists.length; i++){
+            lists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves from the game's
+     * position, with the side to move taken from the game. The game is left
+     * as it was.
+     *
+     * @param game  the game to start from
+     * @param depth number of plies, 0 counts only the starting position
+     * @return number of leaf nodes
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth < 0){
+            throw new IllegalArgumentException("Perft depth must not be negative, got " + depth);
+        }
+        return new Perft(game.getBoard(), depth).count(game.getTeamTurn(), depth, 0);
+    }
+
+    /**
+     * Runs perft below each legal root move separately, for narrowing down
+     * which branch a wrong total comes from
+     *
+     * @param game  the game to start from
+     * @param depth number of plies, at least 1
+     * @return node count under each root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        if (depth < 1){
+            throw new IllegalArgumentException("Divide depth must be at least 1, got " + depth);
+        }
+        Perft perft = new Perft(game.getBoard(), depth);
+        ChessGame.TeamColor color = game.getTeamTurn();
+        MoveList moves = perft.lists[0];
+        moves.clear();
+        MoveGenerator.generate(perft.board, color, ~0L, moves);
+
+        Map<ChessMove, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++){
+            int move = moves.get(i);
+            perft.board.makeMove(move);
+            result.put(Move.toChessMove(move), perft.count(opponent(color), depth - 1, 1));
+            perft.board.unmakeMove();
+        }
+        return result;
+    }
+
+    private long count(ChessGame.TeamColor color, int depth, int ply) {
+        if (depth == 0){
+            return 1;
+        }
+        MoveList moves = lists[ply];
+        moves.clear();
+        MoveGenerator.generate(board, color, ~0L, moves);
+        if (depth == 1){
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++){
+            board.makeMove(moves.get(i));
+            nodes += count(opponent(color), depth - 1, ply + 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1){
+            System.out.println("Usage: Perft <depth> [FEN]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        ChessGame game = new ChessGame();
+        if (args.length > 1){
+            String fen = String.join(" ", java.util.Arrays.copyOfRange(args, 1, args.length));
+            game.loadFEN(fen);
+        }
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : divide(game, depth).entrySet()){
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println();
+        System.out.println("Nodes: " + total);
+        System.out.printf("Time: %.3f s (%.0f nodes/s)%n", seconds, total / Math.max(seconds, 1e-9));
+    }
+}
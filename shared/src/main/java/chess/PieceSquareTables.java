@@ -0,0 +1,144 @@
+package chess;
+
+/**
+ * Material and piece-square values for the static evaluation, with separate
+ * middlegame and endgame weights. ChessBoard keeps running totals of both, so
+ * the evaluation only has to blend two numbers by the game phase.
+ * <p>
+ * Values are in centipawns and already signed: white pieces count positive,
+ * black pieces negative.
+ */
+public final class PieceSquareTables {
+    // Phase of a board with all minor and major pieces still on it
+    public static final int MAX_PHASE = 24;
+
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] MIDGAME_VALUE = {0, 1025, 365, 337, 477, 82};
+    private static final int[] ENDGAME_VALUE = {0, 936, 297, 281, 512, 94};
+    private static final int[] PHASE = {0, 4, 1, 1, 2, 0};
+
+    // Tables from white's side, rank 8 on the first line as on a diagram
+
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+    private static final int[] PAWN_MIDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+    // In the endgame a pawn is worth what it is close to queening
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[][] MIDGAME_TABLES = {KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDGAME};
+    private static final int[][] ENDGAME_TABLES = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+
+    // Indexed like the board's piece masks: color ordinal * 6 + type ordinal
+    private static final int[][] MIDGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        for (int type = 0; type < 6; type++){
+            for (int square = 0; square < 64; square++){
+                int row = square >>> 3;
+                int col = square & 7;
+                // The diagram's first line is rank 8; black reads it upside down
+                int white = (7 - row) * 8 + col;
+                int black = row * 8 + col;
+                MIDGAME[type][square] = MIDGAME_VALUE[type] + MIDGAME_TABLES[type][white];
+                ENDGAME[type][square] = ENDGAME_VALUE[type] + ENDGAME_TABLES[type][white];
+                MIDGAME[6 + type][square] = -(MIDGAME_VALUE[type] + MIDGAME_TABLES[type][black]);
+                ENDGAME[6 + type][square] = -(ENDGAME_VALUE[type] + ENDGAME_TABLES[type][black]);
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    public static int midgame(ChessPiece piece, int square) {
+        return MIDGAME[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()][square];
+    }
+
+    public static int endgame(ChessPiece piece, int square) {
+        return ENDGAME[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()][square];
+    }
+
+    /**
+     * @return how much the piece counts towards the middlegame phase
+     */
+    public static int phase(ChessPiece piece) {
+        return PHASE[piece.getPieceType().ordinal()];
+    }
+}
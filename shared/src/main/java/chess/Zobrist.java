@@ -0,0 +1,59 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of positions. A position's key is the
+ * XOR of the keys of everything in it, so moves update it with a few XORs. The
+ * seed is fixed so keys are stable across runs and can be stored.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long SIDE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x240C4E55L);
+        for (long[] squares : PIECE_SQUARE){
+            for (int square = 0; square < 64; square++){
+                squares[square] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++){
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++){
+            EN_PASSANT_FILE[i] = random.nextLong();
+        }
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(ChessPiece piece, int square) {
+        return PIECE_SQUARE[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()][square];
+    }
+
+    /**
+     * @param rights castling rights as a 4-bit mask
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param file en passant file, 0 for column 1 up to 7 for column 8
+     */
+    public static long enPassant(int file) {
+        return EN_PASSANT_FILE[file];
+    }
+
+    /**
+     * @return the key mixed in when black is to move
+     */
+    public static long blackToMove() {
+        return SIDE;
+    }
+}
@@ -0,0 +1,214 @@
+package chess.bitbase;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.moves.Attacks;
+
+/**
+ * Win/draw bits for every position of king and one piece against a lone
+ * king. The side with the piece is called strong and is always treated as
+ * white moving up the board; probes flip black-strong positions first.
+ * <p>
+ * A position's index packs who is to move and the three squares, so a probe
+ * is one bit lookup. A set bit means the strong side wins with best play;
+ * the weak side can never win, so a clear bit is a draw (or an impossible
+ * position).
+ */
+final class Bitbase {
+    static final int POSITIONS = 1 << 19;
+    static final int BYTES = POSITIONS / 8;
+    private static final int WORDS = POSITIONS / 64;
+
+    private final ByteBuffer bits;
+
+    Bitbase(ByteBuffer bits) {
+        if (bits.capacity() != BYTES){
+            throw new IllegalArgumentException("Bitbase must be " + BYTES + " bytes, got " + bits.capacity());
+        }
+        this.bits = bits;
+    }
+
+    /**
+     * @param strongToMove True if the side with the extra piece is to move
+     * @param strongKing   square of the strong king
+     * @param weakKing     square of the lone king
+     * @param piece        square of the strong side's other piece
+     */
+    static int index(boolean strongToMove, int strongKing, int weakKing, int piece) {
+        return (strongToMove ? 0 : 1) << 18 | strongKing << 12 | weakKing << 6 | piece;
+    }
+
+    /**
+     * @return True if the strong side wins the indexed position
+     */
+    boolean isWin(int index) {
+        return (bits.get(index >>> 3) >>> (index & 7) & 1) != 0;
+    }
+
+    ByteBuffer bits() {
+        return bits.duplicate();
+    }
+
+    /**
+     * Solves every position for one piece type by iterative retrograde
+     * analysis. It starts from the mates and keeps marking wins for the strong
+     * side until a pass adds none:
+     * <ul>
+     * <li>strong to move wins if any move reaches a won position;</li>
+     * <li>weak to move loses if it is mated, or if every move reaches a won
+     * position and none takes the piece.</li>
+     * </ul>
+     * Each pass reads the previous pass's bits and writes fresh ones, 64
+     * positions per task, so the passes spread over all cores without locks.
+     *
+     * @param type      QUEEN, ROOK or PAWN
+     * @param promotion tables a promoting pawn moves into, queen then rook;
+     *                  unused for pieces
+     */
+    static Bitbase generate(ChessPiece.PieceType type, Bitbase... promotion) {
+        long[] valid = new long[WORDS];
+        IntStream.range(0, WORDS).parallel().forEach(word -> {
+            long mask = 0;
+            for (int bit = 0; bit < 64; bit++){
+                if (isValid(type, word * 64 + bit)){
+                    mask |= 1L << bit;
+                }
+            }
+            valid[word] = mask;
+        });
+
+        long[] wins = new long[WORDS];
+        while (true){
+            long[] previous = wins;
+            long[] next = new long[WORDS];
+            int added = IntStream.range(0, WORDS).parallel().map(word -> {
+                long result = previous[word];
+                long open = valid[word] & ~result;
+                while (open != 0){
+                    int bit = Long.numberOfTrailingZeros(open);
+                    open &= open - 1;
+                    if (isWon(type, word * 64 + bit, previous, promotion)){
+                        result |= 1L << bit;
+                    }
+                }
+                next[word] = result;
+                return Long.bitCount(result & ~previous[word]);
+            }).sum();
+            wins = next;
+            if (added == 0){
+                break;
+            }
+        }
+
+        ByteBuffer bits = ByteBuffer.allocate(BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long word : wins){
+            bits.putLong(word);
+        }
+        return new Bitbase(bits.clear());
+    }
+
+    private static boolean isValid(ChessPiece.PieceType type, int index) {
+        boolean strongToMove = index >>> 18 == 0;
+        int strongKing = index >>> 12 & 63;
+        int weakKing = index >>> 6 & 63;
+        int piece = index & 63;
+        if (strongKing == weakKing || strongKing == piece || weakKing == piece
+                || (Attacks.king(strongKing) & 1L << weakKing) != 0){
+            return false;
+        }
+        if (type == ChessPiece.PieceType.PAWN && (piece < 8 || piece >= 56)){
+            return false;
+        }
+        // The weak king can't be in check with the strong side to move
+        long occupied = 1L << strongKing | 1L << weakKing | 1L << piece;
+        return !strongToMove || (attacks(type, piece, occupied) & 1L << weakKing) == 0;
+    }
+
+    private static boolean isWon(ChessPiece.PieceType type, int index, long[] wins, Bitbase[] promotion) {
+        boolean strongToMove = index >>> 18 == 0;
+        int strongKing = index >>> 12 & 63;
+        int weakKing = index >>> 6 & 63;
+        int piece = index & 63;
+        long occupied = 1L << strongKing | 1L << weakKing | 1L << piece;
+
+        if (strongToMove){
+            long kingMoves = Attacks.king(strongKing) & ~Attacks.king(weakKing) & ~(1L << piece);
+            while (kingMoves != 0){
+                int to = Long.numberOfTrailingZeros(kingMoves);
+                kingMoves &= kingMoves - 1;
+                if (isSet(wins, index(false, to, weakKing, piece))){
+                    return true;
+                }
+            }
+            if (type == ChessPiece.PieceType.PAWN){
+                int push = piece + 8;
+                if ((occupied & 1L << push) != 0){
+                    return false;
+                }
+                if (push >= 56){
+                    for (Bitbase promoted : promotion){
+                        if (promoted.isWin(index(false, strongKing, weakKing, push))){
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                if (isSet(wins, index(false, strongKing, weakKing, push))){
+                    return true;
+                }
+                int doublePush = push + 8;
+                return piece < 16 && (occupied & 1L << doublePush) == 0
+                        && isSet(wins, index(false, strongKing, weakKing, doublePush));
+            }
+            long pieceMoves = attacks(type, piece, occupied) & ~(1L << strongKing) & ~(1L << weakKing);
+            while (pieceMoves != 0){
+                int to = Long.numberOfTrailingZeros(pieceMoves);
+                pieceMoves &= pieceMoves - 1;
+                if (isSet(wins, index(false, strongKing, weakKing, to))){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean inCheck = (attacks(type, piece, occupied) & 1L << weakKing) != 0;
+        // Take the king off so it can't hide from a slider behind itself
+        long guarded = attacks(type, piece, occupied & ~(1L << weakKing));
+        long kingMoves = Attacks.king(weakKing) & ~Attacks.king(strongKing);
+        boolean canMove = false;
+        while (kingMoves != 0){
+            int to = Long.numberOfTrailingZeros(kingMoves);
+            kingMoves &= kingMoves - 1;
+            if (to == piece){
+                // An unguarded piece gets taken, leaving two bare kings
+                return false;
+            }
+            if ((guarded & 1L << to) != 0){
+                continue;
+            }
+            canMove = true;
+            if (!isSet(wins, index(true, strongKing, to, piece))){
+                return false;
+            }
+        }
+        // Mated, or every move loses; stalemate is a draw
+        return canMove || inCheck;
+    }
+
+    private static long attacks(ChessPiece.PieceType type, int square, long occupied) {
+        return switch (type) {
+            case QUEEN -> Attacks.queen(square, occupied);
+            case ROOK -> Attacks.rook(square, occupied);
+            case PAWN -> Attacks.pawn(ChessGame.TeamColor.WHITE, square);
+            default -> throw new IllegalArgumentException("No bitbase for " + type);
+        };
+    }
+
+    private static boolean isSet(long[] wins, int index) {
+        return (wins[index >>> 6] & 1L << index) != 0;
+    }
+}
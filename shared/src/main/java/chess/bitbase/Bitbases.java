@@ -0,0 +1,167 @@
+package chess.bitbase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Win/draw/loss bitbases for king and queen, rook or pawn against a lone
+ * king (KQK, KRK, KPK). Each is 64 KB, one bit per position, so a probe is a
+ * couple of mask tests and one bit lookup.
+ * <p>
+ * Build them once with {@link #generate()} and {@link #write(Path)}, or from
+ * the command line with {@code Bitbases <directory>}; servers then
+ * {@link #open(Path)} the files, which maps them into memory instead of
+ * reading them.
+ */
+public class Bitbases {
+    private static final ChessPiece.PieceType[] TYPES = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.PAWN
+    };
+
+    private final Map<ChessPiece.PieceType, Bitbase> bases;
+
+    private Bitbases(Map<ChessPiece.PieceType, Bitbase> bases) {
+        this.bases = bases;
+    }
+
+    /**
+     * Solves all three endings in memory, using every core. KQK and KRK come
+     * first, since a promoting pawn moves into them.
+     *
+     * @return the solved bitbases
+     */
+    public static Bitbases generate() {
+        Map<ChessPiece.PieceType, Bitbase> bases = new EnumMap<>(ChessPiece.PieceType.class);
+        Bitbase queen = Bitbase.generate(ChessPiece.PieceType.QUEEN);
+        Bitbase rook = Bitbase.generate(ChessPiece.PieceType.ROOK);
+        bases.put(ChessPiece.PieceType.QUEEN, queen);
+        bases.put(ChessPiece.PieceType.ROOK, rook);
+        bases.put(ChessPiece.PieceType.PAWN, Bitbase.generate(ChessPiece.PieceType.PAWN, queen, rook));
+        return new Bitbases(bases);
+    }
+
+    /**
+     * Writes one file per ending into a directory, creating it if needed
+     *
+     * @param directory where to put the files
+     * @throws IOException if a file can't be written
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (ChessPiece.PieceType type : TYPES){
+            try (FileChannel channel = FileChannel.open(file(directory, type), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer bits = bases.get(type).bits();
+                while (bits.hasRemaining()){
+                    channel.write(bits);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps bitbase files written by {@link #write(Path)}
+     *
+     * @param directory the directory holding the files
+     * @return the bitbases
+     * @throws IOException if a file is missing, unreadable or the wrong size
+     */
+    public static Bitbases open(Path directory) throws IOException {
+        Map<ChessPiece.PieceType, Bitbase> bases = new EnumMap<>(ChessPiece.PieceType.class);
+        for (ChessPiece.PieceType type : TYPES){
+            Path file = file(directory, type);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() != Bitbase.BYTES){
+                    throw new IOException("Not a bitbase: " + file + " is " + channel.size() + " bytes");
+                }
+                bases.put(type, new Bitbase(channel.map(FileChannel.MapMode.READ_ONLY, 0, Bitbase.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)));
+            }
+        }
+        return new Bitbases(bases);
+    }
+
+    /**
+     * Looks up the game's current position
+     *
+     * @return the outcome for the side to move, or null if the position isn't
+     * one of the endings covered
+     */
+    public Wdl probe(ChessGame game) {
+        return probe(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param board  the position
+     * @param toMove the side to move
+     * @return the outcome for the side to move, or null if the position isn't
+     * one of the endings covered
+     */
+    public Wdl probe(ChessBoard board, ChessGame.TeamColor toMove) {
+        if (Long.bitCount(board.getOccupied()) != 3){
+            return null;
+        }
+        ChessGame.TeamColor strong = Long.bitCount(board.getPieces(ChessGame.TeamColor.WHITE)) == 2
+                ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessGame.TeamColor weak = strong == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        int strongKing = board.getKingSquare(strong);
+        int weakKing = board.getKingSquare(weak);
+        long others = board.getPieces(strong) & ~board.getPieces(strong, ChessPiece.PieceType.KING);
+        if (strongKing < 0 || weakKing < 0 || others == 0){
+            return null;
+        }
+        int piece = Long.numberOfTrailingZeros(others);
+        Bitbase base = bases.get(board.getSquare(piece).getPieceType());
+        if (base == null){
+            return null;
+        }
+        if (strong == ChessGame.TeamColor.BLACK){
+            // Flip the board so the strong side moves up it, as the tables assume
+            strongKing ^= 56;
+            weakKing ^= 56;
+            piece ^= 56;
+        }
+        boolean strongToMove = toMove == strong;
+        if (!base.isWin(Bitbase.index(strongToMove, strongKing, weakKing, piece))){
+            return Wdl.DRAW;
+        }
+        return strongToMove ? Wdl.WIN : Wdl.LOSS;
+    }
+
+    private static Path file(Path directory, ChessPiece.PieceType type) {
+        return directory.resolve(switch (type) {
+            case QUEEN -> "kqk.bb";
+            case ROOK -> "krk.bb";
+            default -> "kpk.bb";
+        });
+    }
+
+    /**
+     * Generates the bitbases and writes them to the directory given as the
+     * only argument
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1){
+            System.err.println("Usage: Bitbases <directory>");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        Bitbases bitbases = generate();
+        bitbases.write(Path.of(args[0]));
+        System.out.printf("Wrote KQK, KRK and KPK to %s in %d ms%n", args[0], (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,10 @@
+package chess.bitbase;
+
+/**
+ * Perfect-play outcome of a position for the side to move
+ */
+public enum Wdl {
+    WIN,
+    DRAW,
+    LOSS
+}
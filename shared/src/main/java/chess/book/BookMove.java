@@ -0,0 +1,13 @@
+package chess.book;
+
+import chess.ChessMove;
+
+/**
+ * A move an opening book suggests for a position
+ *
+ * @param move   the move
+ * @param weight how strongly the book recommends it relative to the other
+ *               moves for the same position; 0 means never play it
+ */
+public record BookMove(ChessMove move, int weight) {
+}
@@ -0,0 +1,191 @@
+package chess.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * A Polyglot .bin opening book, read through a memory mapping. Opening a book
+ * reads nothing up front; lookups binary search the mapped entries, so only
+ * the pages they touch are ever loaded, and every process mapping the same
+ * file shares them through the page cache.
+ * <p>
+ * The file is a sorted array of 16 byte big-endian entries: key (8), move
+ * (2), weight (2), learn (4). Lookups are safe from any number of threads.
+ */
+public class PolyglotBook {
+    private static final int ENTRY_BYTES = 16;
+    // Polyglot promotion codes 1 to 4
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            null, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN
+    };
+
+    private final ByteBuffer entries;
+    private final int count;
+    private final PolyglotKeys keys;
+
+    private PolyglotBook(ByteBuffer entries, PolyglotKeys keys) {
+        this.entries = entries;
+        this.count = entries.capacity() / ENTRY_BYTES;
+        this.keys = keys;
+    }
+
+    /**
+     * Maps a book file built with the standard Polyglot random table
+     *
+     * @param file the .bin book
+     * @return the book
+     * @throws IOException if the file can't be mapped, or the standard table can't be read
+     * @see PolyglotKeys#standard()
+     */
+    public static PolyglotBook open(Path file) throws IOException {
+        return open(file, PolyglotKeys.standard());
+    }
+
+    /**
+     * Maps a book file into memory
+     *
+     * @param file the .bin book
+     * @param keys the Polyglot random number table the book was built with
+     * @return the book
+     * @throws IOException if the file can't be mapped or isn't a whole number of entries
+     */
+    public static PolyglotBook open(Path file, PolyglotKeys keys) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % ENTRY_BYTES != 0){
+                throw new IOException("Not a Polyglot book: " + file + " is " + size + " bytes");
+            }
+            if (size > Integer.MAX_VALUE){
+                throw new IOException("Polyglot book too large to map: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            return new PolyglotBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), keys);
+        }
+    }
+
+    /**
+     * @return the number of entries in the book
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Finds the book's moves for the game's current position. Entries that
+     * aren't legal in the game are left out.
+     *
+     * @param game the game to look up
+     * @return the moves, highest weight first; empty if the book doesn't know the position
+     */
+    public List<BookMove> lookup(ChessGame game) {
+        long key = keys.key(game);
+        List<BookMove> moves = new ArrayList<>();
+        Collection<ChessMove> legal = null;
+        for (int i = firstIndex(key); i < count && keyAt(i) == key; i++){
+            if (legal == null){
+                legal = game.legalMoves();
+            }
+            int offset = i * ENTRY_BYTES;
+            ChessMove move = decode(game, entries.getShort(offset + 8) & 0xFFFF);
+            if (legal.contains(move)){
+                moves.add(new BookMove(move, entries.getShort(offset + 10) & 0xFFFF));
+            }
+        }
+        moves.sort(Comparator.comparingInt(BookMove::weight).reversed());
+        return moves;
+    }
+
+    /**
+     * @return the book's moves for the game's position, best first
+     */
+    public List<ChessMove> candidates(ChessGame game) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (BookMove move : lookup(game)){
+            moves.add(move.move());
+        }
+        return moves;
+    }
+
+    /**
+     * Picks one of the book's moves at random, each with a chance in
+     * proportion to its weight
+     *
+     * @param game   the game to pick a move for
+     * @param random source of randomness
+     * @return the move, or null if the book has no playable move here
+     */
+    public ChessMove pick(ChessGame game, RandomGenerator random) {
+        List<BookMove> moves = lookup(game);
+        long total = 0;
+        for (BookMove move : moves){
+            total += move.weight();
+        }
+        if (total == 0){
+            return null;
+        }
+        long target = random.nextLong(total);
+        for (BookMove move : moves){
+            target -= move.weight();
+            if (target < 0){
+                return move.move();
+            }
+        }
+        return null;
+    }
+
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            // Keys are sorted as unsigned numbers
+            if (Long.compareUnsigned(keyAt(middle), key) < 0){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    /**
+     * Polyglot packs a move as to file (3 bits), to rank (3), from file (3),
+     * from rank (3) and promotion (3), and writes castling as the king
+     * taking its own rook
+     */
+    private static ChessMove decode(ChessGame game, int move) {
+        int toCol = move & 7;
+        int toRow = (move >>> 3) & 7;
+        int fromCol = (move >>> 6) & 7;
+        int fromRow = (move >>> 9) & 7;
+        int promotion = (move >>> 12) & 7;
+        ChessPiece piece = game.getBoard().getSquare(fromRow * 8 + fromCol);
+        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING && fromCol == 4 && toRow == fromRow){
+            if (toCol == 7){
+                toCol = 6;
+            } else if (toCol == 0){
+                toCol = 2;
+            }
+        }
+        return new ChessMove(ChessPosition.of(fromRow + 1, fromCol + 1), ChessPosition.of(toRow + 1, toCol + 1),
+                promotion < PROMOTIONS.length ? PROMOTIONS[promotion] : null);
+    }
+}
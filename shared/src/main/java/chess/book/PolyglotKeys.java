@@ -0,0 +1,151 @@
+package chess.book;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Computes Polyglot position keys. Polyglot books are keyed by a hash made
+ * from a fixed table of 781 random numbers that every book tool shares; this
+ * class reads that table rather than carrying its own copy, so the keys it
+ * makes match books built elsewhere. {@link #standard()} reads it from the
+ * classpath resource chess/book/polyglot-random64.txt, which holds the
+ * Random64 array as published in Polyglot's source.
+ * <p>
+ * As in Polyglot, a castling right only counts while the king and that rook
+ * are still on their starting squares, and the en passant file only counts
+ * when a pawn of the side to move stands ready to take.
+ */
+public final class PolyglotKeys {
+    public static final int COUNT = 781;
+    /**
+     * Name of the standard table's resource, beside this class
+     */
+    public static final String RESOURCE = "polyglot-random64.txt";
+
+    private static final int CASTLING = 768;
+    private static final int EN_PASSANT = 772;
+    private static final int TURN = 780;
+    // Polyglot piece kinds by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] KIND = {5, 4, 2, 1, 3, 0};
+    // A 64-bit hex number, with or without 0x, as in Polyglot's own C source
+    private static final Pattern HEX = Pattern.compile("\\b(?:0[xX])?([0-9A-Fa-f]{16})\\b");
+
+    private static PolyglotKeys standard;
+
+    private final long[] random;
+
+    /**
+     * @param random the 781 Polyglot random numbers, in Polyglot's order
+     */
+    public PolyglotKeys(long[] random) {
+        if (random.length != COUNT){
+            throw new IllegalArgumentException("Expected " + COUNT + " Polyglot keys, got " + random.length);
+        }
+        this.random = random.clone();
+    }
+
+    /**
+     * Reads the random number table from text holding 781 hex numbers, such
+     * as the Random64 array copied from Polyglot's source. Anything between
+     * the numbers is ignored.
+     *
+     * @param file the text file to read
+     * @return the keys
+     * @throws IOException if the file can't be read or has the wrong count
+     */
+    public static PolyglotKeys load(Path file) throws IOException {
+        return parse(Files.readString(file, StandardCharsets.US_ASCII));
+    }
+
+    public static PolyglotKeys load(InputStream in) throws IOException {
+        return parse(new String(in.readAllBytes(), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Reads the standard table from {@link #RESOURCE} the first time it is
+     * asked for
+     *
+     * @return the keys every Polyglot book is built with
+     * @throws IOException if the resource is missing or is not a 781 number table
+     */
+    public static synchronized PolyglotKeys standard() throws IOException {
+        if (standard == null){
+            try (InputStream in = PolyglotKeys.class.getResourceAsStream(RESOURCE)) {
+                if (in == null){
+                    throw new IOException("Polyglot random table not found on the classpath; copy the Random64 "
+                            + "array from Polyglot's source into chess/book/" + RESOURCE);
+                }
+                standard = load(in);
+            }
+        }
+        return standard;
+    }
+
+    private static PolyglotKeys parse(String text) throws IOException {
+        long[] random = new long[COUNT];
+        Matcher matcher = HEX.matcher(text);
+        int count = 0;
+        while (matcher.find()){
+            if (count == COUNT){
+                throw new IOException("More than " + COUNT + " Polyglot keys");
+            }
+            random[count++] = Long.parseUnsignedLong(matcher.group(1), 16);
+        }
+        if (count != COUNT){
+            throw new IOException("Expected " + COUNT + " Polyglot keys, found " + count);
+        }
+        return new PolyglotKeys(random);
+    }
+
+    /**
+     * @return the Polyglot key of the game's current position
+     */
+    public long key(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        long key = 0;
+        long occupied = board.getOccupied();
+        while (occupied != 0){
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            ChessPiece piece = board.getSquare(square);
+            int kind = 2 * KIND[piece.getPieceType().ordinal()]
+                    + (piece.getTeamColor() == ChessGame.TeamColor.WHITE ? 1 : 0);
+            key ^= random[64 * kind + square];
+        }
+        // Polyglot orders the rights like ChessBoard's flags: white short, white long, black short, black long
+        int rights = board.getCastlingRights();
+        if ((rights & ChessBoard.WHITE_KINGSIDE) != 0 && castles(board, ChessGame.TeamColor.WHITE, 4, 7)){
+            key ^= random[CASTLING];
+        }
+        if ((rights & ChessBoard.WHITE_QUEENSIDE) != 0 && castles(board, ChessGame.TeamColor.WHITE, 4, 0)){
+            key ^= random[CASTLING + 1];
+        }
+        if ((rights & ChessBoard.BLACK_KINGSIDE) != 0 && castles(board, ChessGame.TeamColor.BLACK, 60, 63)){
+            key ^= random[CASTLING + 2];
+        }
+        if ((rights & ChessBoard.BLACK_QUEENSIDE) != 0 && castles(board, ChessGame.TeamColor.BLACK, 60, 56)){
+            key ^= random[CASTLING + 3];
+        }
+        if (board.getEnPassantCapturers() != 0){
+            key ^= random[EN_PASSANT + (board.getEnPassantSquare() & 7)];
+        }
+        if (game.getTeamTurn() == ChessGame.TeamColor.WHITE){
+            key ^= random[TURN];
+        }
+        return key;
+    }
+
+    private static boolean castles(ChessBoard board, ChessGame.TeamColor color, int kingSquare, int rookSquare) {
+        return ChessPiece.of(color, ChessPiece.PieceType.KING).equals(board.getSquare(kingSquare))
+                && ChessPiece.of(color, ChessPiece.PieceType.ROOK).equals(board.getSquare(rookSquare));
+    }
+}
@@ -0,0 +1,506 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Zobrist;
+import chess.bitbase.Bitbases;
+import chess.bitbase.Wdl;
+import chess.moves.Move;
+import chess.moves.MoveGenerator;
+import chess.moves.MoveList;
+
+/**
+ * Chooses a move by iterative-deepening alpha-beta search with a quiescence
+ * search on captures. It works on its own copy of the game's board through
+ * make/unmake, so the caller's game is never touched and a search allocates
+ * almost nothing once started. Results are kept in a transposition table,
+ * which may be shared with other engines. Given bitbases, it scores the
+ * endings they cover from them instead of searching on.
+ * <p>
+ * Asking for more than one thread runs a lazy SMP search: helper threads
+ * search the same root alongside the main one, each skipping a different
+ * pattern of depths, and feed each other only through the shared table. The
+ * answer comes from whichever thread finished the deepest iteration.
+ * <p>
+ * An Engine runs one search at a time; {@link #stop()} may be called from
+ * any thread to end the current search early.
+ */
+public class Engine {
+    public static final int MAX_DEPTH = 64;
+    // Check extensions and quiescence can run past the nominal depth
+    static final int MAX_PLY = 2 * MAX_DEPTH;
+    public static final int MATE = 30000;
+    // Scores at or beyond this are mates, with the distance folded in
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+    // Bitbase wins score above any evaluation but below every mate
+    public static final int KNOWN_WIN = 20000;
+    private static final int INFINITY = 32000;
+    private static final int NO_SCORE = Integer.MIN_VALUE;
+    // How often, in nodes, the clock and the stop flag are looked at
+    private static final int CHECK_INTERVAL = 1024;
+    // Helper i skips depths in blocks of SKIP_SIZE[i % 20], offset by SKIP_PHASE[i % 20],
+    // so helpers spread over neighbouring depths instead of racing on the same one
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveScores = new int[MAX_PLY][MoveList.CAPACITY];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private int[] previousPv = new int[0];
+    private final TranspositionTable table;
+    private final Bitbases bitbases;
+    private volatile Engine[] helpers = new Engine[0];
+
+    private volatile boolean stopped;
+    private ChessBoard board;
+    private long deadline;
+    private long nodes;
+    private boolean aborted;
+
+    public Engine() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * @param table transposition table to read and fill; other engines
+     *              may be using it at the same time
+     */
+    public Engine(TranspositionTable table) {
+        this(table, null);
+    }
+
+    /**
+     * @param table    transposition table to read and fill; other engines
+     *                 may be using it at the same time
+     * @param bitbases endgame bitbases to score their endings from, or null
+     */
+    public Engine(TranspositionTable table, Bitbases bitbases) {
+        this.table = table;
+        this.bitbases = bitbases;
+        for (int i = 0; i < moveLists.length; i++){
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches the game's current position for the side to move
+     *
+     * @param game    the game to search; it is not modified
+     * @param request depth and time limits
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult search(ChessGame game, SearchRequest request) {
+        stopped = false;
+        table.newSearch();
+        long deadline = request.timeLimitMillis() > 0
+                ? System.nanoTime() + request.timeLimitMillis() * 1_000_000L : Long.MAX_VALUE;
+        ChessGame.TeamColor color = game.getTeamTurn();
+
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generate(game.getBoard(), color, ~0L, rootMoves);
+        if (rootMoves.isEmpty()){
+            int king = game.getBoard().getKingSquare(color);
+            boolean inCheck = king >= 0 && game.getBoard().isSquareAttacked(king, opponent(color));
+            return new SearchResult(null, inCheck ? -MATE : 0, 0, 0, List.of());
+        }
+
+        Engine[] workers = helpers(request.threads() - 1);
+        SearchResult[] results = new SearchResult[workers.length + 1];
+        Thread[] threads = new Thread[workers.length];
+        for (int i = 0; i < workers.length; i++){
+            Engine helper = workers[i];
+            int index = i + 1;
+            helper.stopped = false;
+            threads[i] = Thread.ofPlatform().daemon().name("search-helper-" + index)
+                    .start(() -> results[index] = helper.iterate(game, request, deadline, index));
+        }
+        results[0] = iterate(game, request, deadline, 0);
+        for (Engine helper : workers){
+            helper.stop();
+        }
+        for (Thread thread : threads){
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        SearchResult best = null;
+        long totalNodes = 0;
+        for (int i = 0; i < results.length; i++){
+            SearchResult result = results[i];
+            if (result == null){
+                continue;
+            }
+            totalNodes += result.nodes();
+            if (result.bestMove() != null && (best == null || result.depth() > best.depth())){
+                best = result;
+            }
+        }
+        if (best == null){
+            // Stopped before even depth 1 finished: any legal move beats none
+            ChessMove move = Move.toChessMove(rootMoves.get(0));
+            return new SearchResult(move, 0, 0, totalNodes, List.of(move));
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), totalNodes,
+                best.principalVariation());
+    }
+
+    /**
+     * Runs iterative deepening on this engine's own board copy
+     *
+     * @param thread 0 for the main search, otherwise the helper's number,
+     *               which picks the depths it skips
+     * @return the deepest iteration this thread finished, with a null move if none
+     */
+    private SearchResult iterate(ChessGame game, SearchRequest request, long deadline, int thread) {
+        aborted = false;
+        nodes = 0;
+        board = new ChessBoard(game.getBoard());
+        this.deadline = deadline;
+        previousPv = new int[0];
+        for (int[] pair : killers){
+            pair[0] = 0;
+            pair[1] = 0;
+        }
+        ChessGame.TeamColor color = game.getTeamTurn();
+
+        SearchResult result = new SearchResult(null, 0, 0, 0, List.of());
+        for (int depth = 1; depth <= request.maxDepth(); depth++){
+            if (thread > 0){
+                int slot = (thread - 1) % SKIP_SIZE.length;
+                if (((depth + SKIP_PHASE[slot]) / SKIP_SIZE[slot]) % 2 != 0){
+                    continue;
+                }
+            }
+            int score = search(color, depth, 0, -INFINITY, INFINITY);
+            if (aborted){
+                break;
+            }
+            previousPv = Arrays.copyOf(pv[0], pvLength[0]);
+            result = new SearchResult(Move.toChessMove(previousPv[0]), score, depth, nodes, toChessMoves(previousPv));
+            if (Math.abs(score) >= MATE_BOUND){
+                break;
+            }
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes,
+                result.principalVariation());
+    }
+
+    /**
+     * Ends the running search as soon as possible. The search still returns
+     * the best move from its last completed iteration.
+     */
+    public void stop() {
+        stopped = true;
+        for (Engine helper : helpers){
+            helper.stop();
+        }
+    }
+
+    /**
+     * Gets helper engines sharing this engine's table, creating any that are
+     * missing. Helpers are kept between searches to reuse their buffers.
+     */
+    private Engine[] helpers(int count) {
+        Engine[] current = helpers;
+        if (current.length < count){
+            Engine[] grown = Arrays.copyOf(current, count);
+            for (int i = current.length; i < count; i++){
+                grown[i] = new Engine(table, bitbases);
+            }
+            helpers = grown;
+            current = grown;
+        }
+        return Arrays.copyOf(current, Math.max(count, 0));
+    }
+
+    private int search(ChessGame.TeamColor color, int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        boolean inCheck = inCheck(color);
+        if (inCheck){
+            depth++;
+        }
+        if (depth <= 0){
+            return quiescence(color, ply, alpha, beta);
+        }
+        if (countNode() || ply >= MAX_PLY - 1){
+            return Evaluation.evaluate(board, color);
+        }
+
+        int known = probeBitbases(color, ply);
+        if (known != NO_SCORE){
+            return known;
+        }
+
+        long key = key(color);
+        long entry = table.probe(key);
+        int tableMove = 0;
+        if (entry != 0){
+            tableMove = TranspositionTable.move(entry);
+            // Never cut at the root: it must come back with a move and a line
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth){
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)){
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generate(board, color, ~0L, moves);
+        if (moves.isEmpty()){
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, tableMove);
+
+        ChessGame.TeamColor enemy = opponent(color);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++){
+            int move = pickNext(moves, ply, i);
+            board.makeMove(move);
+            int score = -search(enemy, depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (aborted){
+                return 0;
+            }
+            if (score > best){
+                best = score;
+                bestMove = move;
+                if (score > alpha){
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta){
+                        if (!Move.isCapture(move) && killers[ply][0] != move){
+                            killers[ply][1] = killers[ply][0];
+                            killers[ply][0] = move;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        // A fail-low says nothing about which move is best
+        int storedMove = bound == TranspositionTable.UPPER ? 0 : bestMove;
+        table.store(key, storedMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiescence(ChessGame.TeamColor color, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (countNode() || ply >= MAX_PLY - 1){
+            return Evaluation.evaluate(board, color);
+        }
+        int known = probeBitbases(color, ply);
+        if (known != NO_SCORE){
+            return known;
+        }
+        boolean inCheck = inCheck(color);
+        int best = -INFINITY;
+        if (!inCheck){
+            // Stand pat: the mover can usually do at least as well as doing nothing
+            best = Evaluation.evaluate(board, color);
+            if (best >= beta){
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generate(board, color, ~0L, moves);
+        if (moves.isEmpty()){
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, 0);
+
+        ChessGame.TeamColor enemy = opponent(color);
+        for (int i = 0; i < moves.size(); i++){
+            int move = pickNext(moves, ply, i);
+            // Out of check every evasion counts; otherwise only captures and promotions
+            if (!inCheck && !Move.isCapture(move) && Move.promotion(move) == null){
+                continue;
+            }
+            board.makeMove(move);
+            int score = -quiescence(enemy, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (aborted){
+                return 0;
+            }
+            if (score > best){
+                best = score;
+                if (score > alpha){
+                    alpha = score;
+                    if (alpha >= beta){
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean countNode() {
+        if (++nodes % CHECK_INTERVAL == 0 && (stopped || System.nanoTime() > deadline)){
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * Gives each move an ordering score: the transposition table's move
+     * first, then last iteration's principal move, then captures by most
+     * valuable victim and least valuable attacker, then promotions, then
+     * killer moves.
+     */
+    private void scoreMoves(MoveList moves, int ply, int tableMove) {
+        int pvMove = ply < previousPv.length ? previousPv[ply] : 0;
+        int[] scores = moveScores[ply];
+        for (int i = 0; i < moves.size(); i++){
+            int move = moves.get(i);
+            int score = 0;
+            if (move == tableMove){
+                score = 2_000_000;
+            } else if (move == pvMove){
+                score = 1_000_000;
+            } else if (Move.isCapture(move)){
+                ChessPiece victim = board.getSquare(Move.to(move));
+                ChessPiece attacker = board.getSquare(Move.from(move));
+                // An en passant capture lands on an empty square
+                ChessPiece.PieceType victimType = victim == null ? ChessPiece.PieceType.PAWN : victim.getPieceType();
+                score = 100_000 + Evaluation.value(victimType) * 10
+                        - Evaluation.value(attacker.getPieceType()) / 10;
+            } else if (Move.promotion(move) != null){
+                score = 90_000 + Evaluation.value(Move.promotion(move));
+            } else if (move == killers[ply][0]){
+                score = 80_000;
+            } else if (move == killers[ply][1]){
+                score = 70_000;
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best scoring move not yet searched into slot index and
+     * returns it, so a cutoff early on saves sorting the rest
+     */
+    private int pickNext(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int bestIndex = index;
+        for (int i = index + 1; i < moves.size(); i++){
+            if (scores[i] > scores[bestIndex]){
+                bestIndex = i;
+            }
+        }
+        int move = moves.get(bestIndex);
+        if (bestIndex != index){
+            moves.set(bestIndex, moves.get(index));
+            moves.set(index, move);
+            int score = scores[bestIndex];
+            scores[bestIndex] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
+
+    /**
+     * Scores the position from the bitbases if they cover it. Mate and
+     * stalemate are looked for first so they still score exactly. A won
+     * ending scores higher the closer the lone king is to the edge and to
+     * the winning king, so the search keeps making progress towards mate.
+     *
+     * @return the score for color, or NO_SCORE if the bitbases don't apply
+     */
+    private int probeBitbases(ChessGame.TeamColor color, int ply) {
+        if (bitbases == null || ply == 0 || Long.bitCount(board.getOccupied()) > 3){
+            return NO_SCORE;
+        }
+        Wdl result = bitbases.probe(board, color);
+        if (result == null){
+            return NO_SCORE;
+        }
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generate(board, color, ~0L, moves);
+        if (moves.isEmpty()){
+            return inCheck(color) ? -MATE + ply : 0;
+        }
+        if (result == Wdl.DRAW){
+            return 0;
+        }
+        ChessGame.TeamColor winner = result == Wdl.WIN ? color : opponent(color);
+        int winningKing = board.getKingSquare(winner);
+        int losingKing = board.getKingSquare(opponent(winner));
+        int edge = Math.max(Math.max(3 - (losingKing >>> 3), (losingKing >>> 3) - 4),
+                Math.max(3 - (losingKing & 7), (losingKing & 7) - 4));
+        int distance = Math.max(Math.abs((winningKing >>> 3) - (losingKing >>> 3)),
+                Math.abs((winningKing & 7) - (losingKing & 7)));
+        int score = KNOWN_WIN + Evaluation.evaluate(board, winner) + 20 * edge - 10 * distance;
+        return result == Wdl.WIN ? score : -score;
+    }
+
+    private long key(ChessGame.TeamColor color) {
+        long key = board.getZobristKey();
+        return color == ChessGame.TeamColor.BLACK ? key ^ Zobrist.blackToMove() : key;
+    }
+
+    /**
+     * Mate scores count plies from the root; the table holds them counted
+     * from the stored position instead, so they stay right wherever that
+     * position turns up again
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND){
+            return score + ply;
+        }
+        return score <= -MATE_BOUND ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND){
+            return score - ply;
+        }
+        return score <= -MATE_BOUND ? score + ply : score;
+    }
+
+    private boolean inCheck(ChessGame.TeamColor color) {
+        int king = board.getKingSquare(color);
+        return king >= 0 && board.isSquareAttacked(king, opponent(color));
+    }
+
+    private static List<ChessMove> toChessMoves(int[] moves) {
+        List<ChessMove> line = new ArrayList<>(moves.length);
+        for (int move : moves){
+            line.add(Move.toChessMove(move));
+        }
+        return line;
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,45 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation: material and piece placement, blended between
+ * middlegame and endgame values by how much material is left. The board
+ * keeps both totals up to date as moves are made and unmade, so evaluating
+ * a position costs a few reads and a multiply.
+ */
+public final class Evaluation {
+    private static final int[] VALUES = new int[ChessPiece.PieceType.values().length];
+
+    static {
+        VALUES[ChessPiece.PieceType.PAWN.ordinal()] = 100;
+        VALUES[ChessPiece.PieceType.KNIGHT.ordinal()] = 320;
+        VALUES[ChessPiece.PieceType.BISHOP.ordinal()] = 330;
+        VALUES[ChessPiece.PieceType.ROOK.ordinal()] = 500;
+        VALUES[ChessPiece.PieceType.QUEEN.ordinal()] = 900;
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * @return the nominal value of a piece type in centipawns, 0 for the king,
+     * for ordering captures
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    /**
+     * @return the position's score in centipawns from color's point of view
+     */
+    public static int evaluate(ChessBoard board, ChessGame.TeamColor color) {
+        int phase = Math.min(board.getGamePhase(), PieceSquareTables.MAX_PHASE);
+        int score = (board.getMidgameScore() * phase
+                + board.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return color == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
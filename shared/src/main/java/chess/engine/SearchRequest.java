@@ -0,0 +1,39 @@
+package chess.engine;
+
+/**
+ * Limits for a single search. A search stops at whichever limit it reaches
+ * first, or when {@link Engine#stop()} is called.
+ *
+ * @param maxDepth        deepest iteration to run, in plies; 0 or less for no limit
+ * @param timeLimitMillis wall clock budget in milliseconds; 0 or less for no limit
+ * @param threads         number of threads to search with, at least 1
+ */
+public record SearchRequest(int maxDepth, long timeLimitMillis, int threads) {
+    public SearchRequest {
+        if (maxDepth <= 0 || maxDepth > Engine.MAX_DEPTH){
+            maxDepth = Engine.MAX_DEPTH;
+        }
+        if (threads < 1){
+            threads = 1;
+        }
+    }
+
+    public SearchRequest(int maxDepth, long timeLimitMillis) {
+        this(maxDepth, timeLimitMillis, 1);
+    }
+
+    public static SearchRequest depth(int maxDepth) {
+        return new SearchRequest(maxDepth, 0);
+    }
+
+    public static SearchRequest time(long timeLimitMillis) {
+        return new SearchRequest(0, timeLimitMillis);
+    }
+
+    /**
+     * @return a copy of this request searching with the given number of threads
+     */
+    public SearchRequest withThreads(int threads) {
+        return new SearchRequest(maxDepth, timeLimitMillis, threads);
+    }
+}
@@ -0,0 +1,26 @@
+package chess.engine;
+
+import java.util.List;
+
+import chess.ChessMove;
+
+/**
+ * Outcome of a search, taken from the deepest iteration that finished
+ *
+ * @param bestMove           move to play, or null if the side to move has no legal moves
+ * @param score              centipawns from the mover's point of view; mate scores
+ *                           lie beyond {@link Engine#MATE_BOUND}
+ * @param depth              depth of the iteration the result comes from
+ * @param nodes              positions visited by the whole search
+ * @param principalVariation expected line of play starting with bestMove
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes,
+                           List<ChessMove> principalVariation) {
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Engine.MATE_BOUND;
+    }
+}
@@ -0,0 +1,176 @@
+package chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed-size hash table of search results keyed by Zobrist key, stored in a
+ * single long[] so it costs no objects and no locks. Any number of search
+ * threads may share one table.
+ * <p>
+ * Each entry is two longs: the key XORed with the data, and the data. A
+ * reader only accepts an entry when the two XOR back to its own key, so an
+ * entry torn by two threads writing at once reads as a miss rather than as
+ * another position's result. Entries are grouped four to a bucket (one 64
+ * byte cache line); a store replaces the bucket's entry that is oldest and
+ * shallowest.
+ * <p>
+ * Data layout, low bits first: move (16), score (16, signed), depth (8),
+ * bound (2), age (6). The bound is never 0, so 0 doubles as "no entry".
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    public static final int EXACT = 1;
+    // Score is at least this (the search failed high)
+    public static final int LOWER = 2;
+    // Score is at most this (the search failed low)
+    public static final int UPPER = 3;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+    private static final int AGE_MASK = 0x3F;
+    // Opaque access makes every long read and written whole, on any JVM
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int age;
+
+    /**
+     * Creates a table using at most the given amount of memory. The bucket
+     * count is rounded down to a power of two.
+     *
+     * @param megabytes memory budget, at least 1
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1){
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / (BUCKET_LONGS * Long.BYTES));
+        // Keep the array within Java's maximum array length
+        buckets = Math.min(buckets, 1L << 27);
+        table = new long[(int) buckets * BUCKET_LONGS];
+        bucketMask = (int) buckets - 1;
+    }
+
+    public TranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param key Zobrist key of the position, including the side to move
+     * @return the stored data, or 0 if the position is not in the table
+     */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int i = base; i < base + BUCKET_LONGS; i += ENTRY_LONGS){
+            long data = (long) SLOTS.getOpaque(table, i + 1);
+            if (data != 0 && ((long) SLOTS.getOpaque(table, i) ^ data) == key){
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result, replacing this position's earlier entry if it
+     * has one and otherwise the least useful entry in its bucket
+     *
+     * @param key   Zobrist key of the position, including the side to move
+     * @param move  best move found (int encoded), or 0 for none
+     * @param score score from the mover's point of view
+     * @param depth remaining depth the score was searched to
+     * @param bound EXACT, LOWER or UPPER
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int currentAge = age;
+        int base = bucket(key);
+        int target = base;
+        int worst = Integer.MAX_VALUE;
+        for (int i = base; i < base + BUCKET_LONGS; i += ENTRY_LONGS){
+            long data = (long) SLOTS.getOpaque(table, i + 1);
+            if (data == 0){
+                target = i;
+                break;
+            }
+            if (((long) SLOTS.getOpaque(table, i) ^ data) == key){
+                // Keep a deeper result for the same position unless this one is exact
+                if (bound != EXACT && depth(data) > depth && age(data) == currentAge){
+                    return;
+                }
+                if (move == 0){
+                    move = move(data);
+                }
+                target = i;
+                break;
+            }
+            // Entries left over from earlier searches go first, oldest first,
+            // then the shallowest of the current search's
+            int staleness = (currentAge - age(data)) & AGE_MASK;
+            int value = depth(data) - 256 * staleness;
+            if (value < worst){
+                worst = value;
+                target = i;
+            }
+        }
+        long data = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) (Math.max(0, Math.min(depth, 0xFF))) << 32
+                | (long) bound << 40
+                | (long) currentAge << 42;
+        SLOTS.setOpaque(table, target, key ^ data);
+        SLOTS.setOpaque(table, target + 1, data);
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are
+     * replaced first
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        for (int i = 0; i < table.length; i++){
+            SLOTS.setOpaque(table, i, 0L);
+        }
+    }
+
+    /**
+     * @return the number of entries the table can hold
+     */
+    public int capacity() {
+        return table.length / ENTRY_LONGS;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 40) & 0x3;
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> 42) & AGE_MASK;
+    }
+
+    private int bucket(long key) {
+        return ((int) key & bucketMask) * BUCKET_LONGS;
+    }
+}
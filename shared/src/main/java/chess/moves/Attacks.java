@@ -0,0 +1,144 @@
+package chess.moves;
+
+import chess.ChessGame;
+
+/**
+ * Precomputed attack masks for every square, indexed by bitboard square
+ * (see ChessPosition.toSquare). Leapers are plain table lookups; sliders
+ * walk a precomputed ray up to its first blocker.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    // Rays in each direction, excluding the origin square. The first four point
+    // towards higher square indices, the last four towards lower ones.
+    private static final int NORTH = 0;
+    private static final int NORTH_EAST = 1;
+    private static final int EAST = 2;
+    private static final int NORTH_WEST = 3;
+    private static final int SOUTH = 4;
+    private static final int SOUTH_WEST = 5;
+    private static final int WEST = 6;
+    private static final int SOUTH_EAST = 7;
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {1, 1}, {0, 1}, {1, -1}, {-1, 0}, {-1, -1}, {0, -1}, {-1, 1}
+    };
+    private static final long[][] RAYS = new long[8][64];
+
+    // For two squares on a common rank, file or diagonal: the squares strictly
+    // between them, and the whole line through both. Zero when not aligned.
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightJumps = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        for (int square = 0; square < 64; square++){
+            int row = square >>> 3;
+            int col = square & 7;
+            for (int[] jump : knightJumps){
+                KNIGHT[square] |= bit(row + jump[0], col + jump[1]);
+            }
+            for (int[] direction : DIRECTIONS){
+                KING[square] |= bit(row + direction[0], col + direction[1]);
+            }
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+            for (int dir = 0; dir < 8; dir++){
+                int r = row + DIRECTIONS[dir][0];
+                int c = col + DIRECTIONS[dir][1];
+                while (bit(r, c) != 0){
+                    RAYS[dir][square] |= bit(r, c);
+                    r += DIRECTIONS[dir][0];
+                    c += DIRECTIONS[dir][1];
+                }
+            }
+        }
+        for (int from = 0; from < 64; from++){
+            for (int dir = 0; dir < 8; dir++){
+                long ray = RAYS[dir][from];
+                long line = ray | RAYS[(dir + 4) % 8][from] | (1L << from);
+                while (ray != 0){
+                    int to = Long.numberOfTrailingZeros(ray);
+                    ray &= ray - 1;
+                    BETWEEN[from][to] = RAYS[dir][from] & RAYS[(dir + 4) % 8][to];
+                    LINE[from][to] = line;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static long bit(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7){
+            return 0;
+        }
+        return 1L << (row * 8 + col);
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on square attacks
+     */
+    public static long pawn(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return positiveRay(NORTH_EAST, square, occupied) | positiveRay(NORTH_WEST, square, occupied)
+                | negativeRay(SOUTH_EAST, square, occupied) | negativeRay(SOUTH_WEST, square, occupied);
+    }
+
+    public static long rook(int square, long occupied) {
+        return positiveRay(NORTH, square, occupied) | positiveRay(EAST, square, occupied)
+                | negativeRay(SOUTH, square, occupied) | negativeRay(WEST, square, occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return bishop(square, occupied) | rook(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between a and b if they share a rank, file
+     * or diagonal, otherwise 0
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal through a and b, edge
+     * to edge, or 0 if they are not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    private static long positiveRay(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers == 0){
+            return ray;
+        }
+        return ray ^ RAYS[dir][Long.numberOfTrailingZeros(blockers)];
+    }
+
+    private static long negativeRay(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers == 0){
+            return ray;
+        }
+        return ray ^ RAYS[dir][63 - Long.numberOfLeadingZeros(blockers)];
+    }
+}
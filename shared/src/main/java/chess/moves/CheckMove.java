@@ -11,7 +11,7 @@ import java.util.HashSet;
 public class CheckMove {
     static void up(ChessBoard board, ChessPosition position, ChessGame.TeamColor color, int row, int col, HashSet<ChessMove> possibleMoves) {
         for (int r = row - 1; r >= 1; r--){
-            ChessPosition newPosition = new ChessPosition(r, col);
+            ChessPosition newPosition = ChessPosition.of(r, col);
             if (addMove(board, position, newPosition, color, possibleMoves)){
                 break;
             }
@@ -19,7 +19,7 @@ public class CheckMove {
     }
     static void down(ChessBoard board, ChessPosition position, ChessGame.TeamColor color, int row, int col, HashSet<ChessMove> possibleMoves) {
         for (int r = row + 1; r <= 8; r++){
-            ChessPosition newPosition = new ChessPosition(r, col);
+            ChessPosition newPosition = ChessPosition.of(r, col);
             if (addMove(board, position, newPosition, color, possibleMoves)){
                 break;
             }
@@ -27,7 +27,7 @@ public class CheckMove {
     }
     static void right(ChessBoard board, ChessPosition position, ChessGame.TeamColor color, int row, int col, HashSet<ChessMove> possibleMoves) {
         for (int c = col + 1; c <= 8; c++){
-            ChessPosition newPosition = new ChessPosition(row, c);
+            ChessPosition newPosition = ChessPosition.of(row, c);
             if (addMove(board, position, newPosition, color, possibleMoves)){
                 break;
             }
@@ -35,7 +35,7 @@ public class CheckMove {
     }
     static void left(ChessBoard board, ChessPosition position, ChessGame.TeamColor color, int row, int col, HashSet<ChessMove> possibleMoves) {
         for (int c = col - 1; c >= 1; c--){
-            ChessPosition newPosition = new ChessPosition(row, c);
+            ChessPosition newPosition = ChessPosition.of(row, c);
             if (addMove(board, position, newPosition, color, possibleMoves)){
                 break;
             }
@@ -43,7 +43,7 @@ public class CheckMove {
     }
     static void upAndLeft(ChessBoard board, ChessPosition position, ChessGame.TeamColor color, int row, int col, HashSet<ChessMove> possibleMoves) {
         for (int r = row -1, c = col - 1; r >= 1 && c >= 1; r--, c--){
-            ChessPosition newPosition = new ChessPosition(r, c);
+            ChessPosition newPosition = ChessPosition.of(r, c);
             if (addMove(board, position, newPosition, color, possibleMoves)){
                 break;
             }
@@ -51,7 +51,7 @@ public class CheckMove {
     }
     static void upAndRight(ChessBoard board, ChessPosition position, ChessGame.TeamColor color, int row, int col, HashSet<ChessMove> possibleMoves) {
         for (int r = row -1, c = col + 1; r >= 1 && c <= 8; r--, c++){
-            ChessPosition newPosition = new ChessPosition(r, c);
+            ChessPosition newPosition = ChessPosition.of(r, c);
             if (addMove(board, position, newPosition, color, possibleMoves)){
                 break;
             }
@@ -59,7 +59,7 @@ public class CheckMove {
     }
     static void downAndLeft(ChessBoard board, ChessPosition position, ChessGame.TeamColor color, int row, int col, HashSet<ChessMove> possibleMoves) {
         for (int r = row + 1, c = col - 1; r <= 8 && c >= 1; r++, c--){
-            ChessPosition newPosition = new ChessPosition(r, c);
+            ChessPosition newPosition = ChessPosition.of(r, c);
             if (addMove(board, position, newPosition, color, possibleMoves)){
                 break;
             }
@@ -68,7 +68,7 @@ public class CheckMove {
     static void downAndRight(ChessBoard board, ChessPosition position, ChessGame.TeamColor 
     color, int row, int col, HashSet<ChessMove> possibleMoves) {
         for (int r = row +1, c = col + 1; r <= 8 && c <= 8; r++, c++){
-            ChessPosition newPosition = new ChessPosition(r, c);
+            ChessPosition newPosition = ChessPosition.of(r, c);
             if (addMove(board, position, newPosition, color, possibleMoves)){
                 break;
             }
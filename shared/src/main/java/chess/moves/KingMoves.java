@@ -13,14 +13,14 @@ public class KingMoves {
         int row = position.getRow();
         int col = position.getColumn();
 
-        addMoveSpecial(board, position, new ChessPosition(row - 1, col - 1), color, possibleMoves);
-        addMoveSpecial(board, position, new ChessPosition(row - 1, col), color, possibleMoves);
-        addMoveSpecial(board, position, new ChessPosition(row - 1, col + 1), color, possibleMoves);
-        addMoveSpecial(board, position, new ChessPosition(row, col + 1), color, possibleMoves);
-        addMoveSpecial(board, position, new ChessPosition(row + 1, col + 1), color, possibleMoves);
-        addMoveSpecial(board, position, new ChessPosition(row + 1, col), color, possibleMoves);
-        addMoveSpecial(board, position, new ChessPosition(row + 1, col - 1), color, possibleMoves);
-        addMoveSpecial(board, position, new ChessPosition(row, col - 1), color, possibleMoves);
+        addMoveSpecial(board, position, ChessPosition.of(row - 1, col - 1), color, possibleMoves);
+        addMoveSpecial(board, position, ChessPosition.of(row - 1, col), color, possibleMoves);
+        addMoveSpecial(board, position, ChessPosition.of(row - 1, col + 1), color, possibleMoves);
+        addMoveSpecial(board, position, ChessPosition.of(row, col + 1), color, possibleMoves);
+        addMoveSpecial(board, position, ChessPosition.of(row + 1, col + 1), color, possibleMoves);
+        addMoveSpecial(board, position, ChessPosition.of(row + 1, col), color, possibleMoves);
+        addMoveSpecial(board, position, ChessPosition.of(row + 1, col - 1), color, possibleMoves);
+        addMoveSpecial(board, position, ChessPosition.of(row, col - 1), color, possibleMoves);
         return possibleMoves;
     }
 
@@ -12,14 +12,14 @@ public class KnightMoves {
         int row = position.getRow();
         int col = position.getColumn();
 
-        KingMoves.addMoveSpecial(board, position, new ChessPosition(row - 2, col - 1), color, possibleMoves);
-        KingMoves.addMoveSpecial(board, position, new ChessPosition(row - 2, col + 1), color, possibleMoves);
-        KingMoves.addMoveSpecial(board, position, new ChessPosition(row - 1, col - 2), color, possibleMoves);
-        KingMoves.addMoveSpecial(board, position, new ChessPosition(row - 1, col + 2), color, possibleMoves);
-        KingMoves.addMoveSpecial(board, position, new ChessPosition(row + 1, col - 2), color, possibleMoves);
-        KingMoves.addMoveSpecial(board, position, new ChessPosition(row + 1, col + 2), color, possibleMoves);
-        KingMoves.addMoveSpecial(board, position, new ChessPosition(row + 2, col - 1), color, possibleMoves);
-        KingMoves.addMoveSpecial(board, position, new ChessPosition(row + 2, col + 1), color, possibleMoves);
+        KingMoves.addMoveSpecial(board, position, ChessPosition.of(row - 2, col - 1), color, possibleMoves);
+        KingMoves.addMoveSpecial(board, position, ChessPosition.of(row - 2, col + 1), color, possibleMoves);
+        KingMoves.addMoveSpecial(board, position, ChessPosition.of(row - 1, col - 2), color, possibleMoves);
+        KingMoves.addMoveSpecial(board, position, ChessPosition.of(row - 1, col + 2), color, possibleMoves);
+        KingMoves.addMoveSpecial(board, position, ChessPosition.of(row + 1, col - 2), color, possibleMoves);
+        KingMoves.addMoveSpecial(board, position, ChessPosition.of(row + 1, col + 2), color, possibleMoves);
+        KingMoves.addMoveSpecial(board, position, ChessPosition.of(row + 2, col - 1), color, possibleMoves);
+        KingMoves.addMoveSpecial(board, position, ChessPosition.of(row + 2, col + 1), color, possibleMoves);
         return possibleMoves;
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package chess.moves;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Packs a move into an int so generators and search never allocate one:
+ * bits 0-5 hold the start square, 6-11 the end square, 12-14 the promotion
+ * piece (PieceType ordinal + 1, 0 for none) and the bits above that are flags.
+ * ChessMove objects are only built when a move leaves the engine.
+ */
+public final class Move {
+    public static final int NONE = 0;
+    public static final int CAPTURE = 1 << 15;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promo = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promo << 12) | flags;
+    }
+
+    /**
+     * Encodes a move coming in from the API. Flags are left unset, since only
+     * the board knows whether the end square is occupied.
+     */
+    public static int encode(ChessMove move) {
+        return encode(move.getStartPosition().toSquare(), move.getEndPosition().toSquare(),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promo = (move >>> 12) & 7;
+        return promo == 0 ? null : TYPES[promo - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return the move with its flags stripped, for comparing moves that were
+     * encoded with and without board context
+     */
+    public static int withoutFlags(int move) {
+        return move & 0x7FFF;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.fromSquare(from(move)), ChessPosition.fromSquare(to(move)),
+                promotion(move));
+    }
+}
@@ -0,0 +1,243 @@
+package chess.moves;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+
+import java.util.Collection;
+
+/**
+ * Generates strictly legal moves straight from the board's bitboards. Checks
+ * and pins are worked out once up front, so no candidate move ever has to be
+ * played out to see whether it leaves the king attacked.
+ */
+public class MoveGenerator {
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+
+    /**
+     * Adds every legal move for a team to moves, as ChessMove objects
+     *
+     * @param board    the position to generate moves for
+     * @param color    the team to move
+     * @param fromMask only pieces standing on these squares are considered
+     * @param moves    collection the moves are added to
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor color, long fromMask,
+                                Collection<ChessMove> moves) {
+        MoveList list = new MoveList();
+        generate(board, color, fromMask, list);
+        list.addTo(moves);
+    }
+
+    /**
+     * Appends every legal move for a team to a move list without allocating
+     *
+     * @param board    the position to generate moves for
+     * @param color    the team to move
+     * @param fromMask only pieces standing on these squares are considered
+     * @param moves    list the int-encoded moves are appended to
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor color, long fromMask, MoveList moves) {
+        ChessGame.TeamColor enemy = opponent(color);
+        long own = board.getPieces(color);
+        long occupied = board.getOccupied();
+        int kingSquare = board.getKingSquare(color);
+
+        long pieces = own & fromMask;
+        long checkMask = ~0L;
+        long pinned = 0;
+        boolean inCheck = false;
+        if (kingSquare >= 0){
+            long checkers = attackers(board, kingSquare, enemy, occupied);
+            inCheck = checkers != 0;
+            if (Long.bitCount(checkers) > 1){
+                // Double check: only the king can do anything about it
+                pieces &= board.getPieces(color, ChessPiece.PieceType.KING);
+            } else if (checkers != 0){
+                checkMask = checkers | Attacks.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+            }
+            pinned = pinnedPieces(board, kingSquare, color, own, occupied);
+        }
+
+        while (pieces != 0){
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            ChessPiece.PieceType type = board.getSquare(from).getPieceType();
+            if (type == ChessPiece.PieceType.KING){
+                addKingMoves(board, color, from, own, occupied, moves);
+                if (!inCheck){
+                    addCastling(board, color, from, occupied, moves);
+                }
+                continue;
+            }
+            long allowed = checkMask;
+            if ((pinned & (1L << from)) != 0){
+                allowed &= Attacks.line(kingSquare, from);
+            }
+            long targets = switch (type) {
+                case PAWN -> pawnTargets(board, color, from, occupied);
+                case KNIGHT -> Attacks.knight(from);
+                case BISHOP -> Attacks.bishop(from, occupied);
+                case ROOK -> Attacks.rook(from, occupied);
+                default -> Attacks.queen(from, occupied);
+            };
+            targets &= ~own & allowed;
+            long captures = targets & board.getPieces(enemy);
+            if (type == ChessPiece.PieceType.PAWN){
+                addPawnMoves(from, targets, captures, moves);
+                int enPassant = board.getEnPassantSquare();
+                if (enPassant >= 0 && (Attacks.pawn(color, from) & (1L << enPassant)) != 0
+                        && isLegalEnPassant(board, color, from, enPassant, kingSquare, occupied)){
+                    moves.add(Move.encode(from, enPassant) | Move.CAPTURE);
+                }
+            } else {
+                addMoves(from, targets, captures, moves);
+            }
+        }
+    }
+
+    /**
+     * @return mask of the pieces of byColor attacking square, given the occupancy
+     */
+    public static long attackers(ChessBoard board, int square, ChessGame.TeamColor byColor, long occupied) {
+        long queens = board.getPieces(byColor, ChessPiece.PieceType.QUEEN);
+        return (Attacks.knight(square) & board.getPieces(byColor, ChessPiece.PieceType.KNIGHT))
+                | (Attacks.king(square) & board.getPieces(byColor, ChessPiece.PieceType.KING))
+                | (Attacks.pawn(opponent(byColor), square) & board.getPieces(byColor, ChessPiece.PieceType.PAWN))
+                | (Attacks.bishop(square, occupied) & (board.getPieces(byColor, ChessPiece.PieceType.BISHOP) | queens))
+                | (Attacks.rook(square, occupied) & (board.getPieces(byColor, ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    private static long pinnedPieces(ChessBoard board, int kingSquare, ChessGame.TeamColor color,
+                                     long own, long occupied) {
+        ChessGame.TeamColor enemy = opponent(color);
+        long queens = board.getPieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rook(kingSquare, 0) & (board.getPieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishop(kingSquare, 0) & (board.getPieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long pinned = 0;
+        while (snipers != 0){
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1){
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static long pawnTargets(ChessBoard board, ChessGame.TeamColor color, int from, long occupied) {
+        long targets = Attacks.pawn(color, from) & board.getPieces(opponent(color));
+        int forward = color == ChessGame.TeamColor.WHITE ? 8 : -8;
+        int single = from + forward;
+        if (single >= 0 && single < 64 && (occupied & (1L << single)) == 0){
+            targets |= 1L << single;
+            int startRow = color == ChessGame.TeamColor.WHITE ? 1 : 6;
+            int twice = single + forward;
+            if ((from >>> 3) == startRow && (occupied & (1L << twice)) == 0){
+                targets |= 1L << twice;
+            }
+        }
+        return targets;
+    }
+
+    private static void addKingMoves(ChessBoard board, ChessGame.TeamColor color, int from, long own,
+                                     long occupied, MoveList moves) {
+        ChessGame.TeamColor enemy = opponent(color);
+        // Take the king off the board so it can't hide behind itself from a slider
+        long withoutKing = occupied & ~(1L << from);
+        long captures = board.getPieces(enemy);
+        long targets = Attacks.king(from) & ~own;
+        while (targets != 0){
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (attackers(board, to, enemy, withoutKing) == 0){
+                moves.add(Move.encode(from, to) | captureFlag(captures, to));
+            }
+        }
+    }
+
+    /**
+     * Adds castling moves, written as the king stepping two squares. The
+     * board's castling rights say whether the king and rook have moved; the
+     * rest is checked here: the rook is home, the squares between are empty
+     * and the king does not pass through or land on an attacked square. The
+     * caller has already made sure the king is not in check.
+     */
+    private static void addCastling(ChessBoard board, ChessGame.TeamColor color, int from, long occupied,
+                                    MoveList moves) {
+        int home = color == ChessGame.TeamColor.WHITE ? 4 : 60;
+        int rights = board.getCastlingRights() >>> (color.ordinal() * 2) & 3;
+        if (rights == 0 || from != home){
+            return;
+        }
+        ChessGame.TeamColor enemy = opponent(color);
+        long rooks = board.getPieces(color, ChessPiece.PieceType.ROOK);
+        if ((rights & 1) != 0 && (rooks & (1L << (home + 3))) != 0 && (occupied & (3L << (home + 1))) == 0
+                && attackers(board, home + 1, enemy, occupied) == 0
+                && attackers(board, home + 2, enemy, occupied) == 0){
+            moves.add(Move.encode(home, home + 2));
+        }
+        if ((rights & 2) != 0 && (rooks & (1L << (home - 4))) != 0 && (occupied & (7L << (home - 3))) == 0
+                && attackers(board, home - 1, enemy, occupied) == 0
+                && attackers(board, home - 2, enemy, occupied) == 0){
+            moves.add(Move.encode(home, home - 2));
+        }
+    }
+
+    /**
+     * En passant takes a pawn off a square the move doesn't end on, so the
+     * usual check and pin masks don't cover it. Instead the king is tested
+     * against the occupancy after the capture, which also catches the rare
+     * case of both pawns leaving a rank the king shares with an enemy rook.
+     */
+    private static boolean isLegalEnPassant(ChessBoard board, ChessGame.TeamColor color, int from, int to,
+                                            int kingSquare, long occupied) {
+        ChessGame.TeamColor enemy = opponent(color);
+        long captured = 1L << ((from & 56) | (to & 7));
+        if ((board.getPieces(enemy, ChessPiece.PieceType.PAWN) & captured) == 0){
+            return false;
+        }
+        if (kingSquare < 0){
+            return true;
+        }
+        long after = (occupied ^ (1L << from) ^ captured) | (1L << to);
+        return (attackers(board, kingSquare, enemy, after) & ~captured) == 0;
+    }
+
+    private static void addMoves(int from, long targets, long captures, MoveList moves) {
+        while (targets != 0){
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Move.encode(from, to) | captureFlag(captures, to));
+        }
+    }
+
+    private static void addPawnMoves(int from, long targets, long captures, MoveList moves) {
+        while (targets != 0){
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = captureFlag(captures, to);
+            int row = to >>> 3;
+            if (row == 0 || row == 7){
+                for (ChessPiece.PieceType promotion : PROMOTIONS){
+                    moves.add(Move.encode(from, to, promotion, flags));
+                }
+            } else {
+                moves.add(Move.encode(from, to) | flags);
+            }
+        }
+    }
+
+    private static int captureFlag(long captures, int to) {
+        return (captures & (1L << to)) != 0 ? Move.CAPTURE : 0;
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
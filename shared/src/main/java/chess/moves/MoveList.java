@@ -0,0 +1,64 @@
+package chess.moves;
+
+import chess.ChessMove;
+
+import java.util.Collection;
+
+/**
+ * A reusable buffer of int-encoded moves (see {@link Move}). Callers keep one
+ * per search ply and clear it instead of building a new collection per node.
+ */
+public final class MoveList {
+    // No legal chess position has more than 218 moves
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return True if the list holds the same move, ignoring flags
+     */
+    public boolean contains(int move) {
+        int target = Move.withoutFlags(move);
+        for (int i = 0; i < size; i++){
+            if (Move.withoutFlags(moves[i]) == target){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts every move in the list to a ChessMove, for handing results back
+     * through the public API
+     */
+    public void addTo(Collection<ChessMove> target) {
+        for (int i = 0; i < size; i++){
+            target.add(Move.toChessMove(moves[i]));
+        }
+    }
+}
@@ -17,13 +17,13 @@ public class PawnMoves {
 
 
         if ((color == ChessGame.TeamColor.WHITE && row == 2) || (color == ChessGame.TeamColor.BLACK && row == 7) 
-        && board.getPiece(new ChessPosition(row + 1 * direction, col)) == null) {
-            addMoveForPawn(board, position, new ChessPosition(row + 2 * direction, col), color, possibleMoves, false);
+        && board.getPiece(ChessPosition.of(row + 1 * direction, col)) == null) {
+            addMoveForPawn(board, position, ChessPosition.of(row + 2 * direction, col), color, possibleMoves, false);
         }
 
-        addMoveForPawn(board, position, new ChessPosition(row + direction, col), color, possibleMoves, false);
-        addMoveForPawn(board, position, new ChessPosition(row + direction, col - 1), color, possibleMoves, true);
-        addMoveForPawn(board, position, new ChessPosition(row + direction, col + 1), color, possibleMoves, true);
+        addMoveForPawn(board, position, ChessPosition.of(row + direction, col), color, possibleMoves, false);
+        addMoveForPawn(board, position, ChessPosition.of(row + direction, col - 1), color, possibleMoves, true);
+        addMoveForPawn(board, position, ChessPosition.of(row + direction, col + 1), color, possibleMoves, true);
 
         return possibleMoves;
     }
@@ -0,0 +1,36 @@
+package chess.puzzle;
+
+import java.util.List;
+
+import chess.ChessMove;
+
+/**
+ * Outcome of checking one puzzle for a forced mate
+ *
+ * @param index    position of the puzzle in its batch, counting from 0
+ * @param fen      the puzzle as given
+ * @param status   whether a mate was found
+ * @param moves    length of the shortest mate found, in the attacker's moves;
+ *                 0 unless status is MATE
+ * @param keyMoves every first move that mates in that many moves; more than
+ *                 one means the puzzle is cooked
+ * @param nodes    positions visited while solving
+ */
+public record MateResult(int index, String fen, Status status, int moves, List<ChessMove> keyMoves, long nodes) {
+
+    public enum Status {
+        // A forced mate was proven
+        MATE,
+        // No mate within the limit where every attacking move is a check
+        NO_MATE,
+        // The FEN could not be read or is not a legal position
+        INVALID
+    }
+
+    /**
+     * @return True if exactly one first move forces the mate
+     */
+    public boolean isUnique() {
+        return status == Status.MATE && keyMoves.size() == 1;
+    }
+}
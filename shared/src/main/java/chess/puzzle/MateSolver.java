@@ -0,0 +1,270 @@
+package chess.puzzle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.bitbase.Bitbases;
+import chess.bitbase.Wdl;
+import chess.moves.Move;
+import chess.moves.MoveGenerator;
+import chess.moves.MoveList;
+
+/**
+ * Proves or refutes mate-in-N for batches of puzzles given as FEN strings.
+ * <p>
+ * The proof search only tries checking moves for the attacker, while the
+ * defender tries every reply. That keeps the tree small enough to clear
+ * large puzzle files quickly. The catch is that a mate whose key move is
+ * quiet is reported as NO_MATE. Mates are tried at lengths 1, 2, ... up to
+ * the limit, so the one reported is the shortest.
+ * <p>
+ * A solver holds no per-puzzle state, so one instance can solve any number
+ * of puzzles at once.
+ */
+public class MateSolver {
+    private final int maxMoves;
+    private final Bitbases bitbases;
+
+    /**
+     * @param maxMoves longest mate to look for, in the attacker's moves
+     */
+    public MateSolver(int maxMoves) {
+        this(maxMoves, null);
+    }
+
+    /**
+     * @param maxMoves longest mate to look for, in the attacker's moves
+     * @param bitbases bitbases to rule out drawn endings early, or null
+     */
+    public MateSolver(int maxMoves, Bitbases bitbases) {
+        if (maxMoves < 1){
+            throw new IllegalArgumentException("Mate length must be at least 1, got " + maxMoves);
+        }
+        this.maxMoves = maxMoves;
+        this.bitbases = bitbases;
+    }
+
+    /**
+     * Solves puzzles in parallel, reporting each result as soon as its puzzle
+     * is done. Results arrive in the order puzzles finish, not the order
+     * given; use MateResult.index to match them up. onResult is called from
+     * one thread at a time. Blank lines and lines starting with # are
+     * skipped and take no index.
+     *
+     * @param fens     the puzzles, one FEN each
+     * @param pool     pool to solve them on
+     * @param onResult receives each result
+     */
+    public void solveAll(Stream<String> fens, ForkJoinPool pool, Consumer<MateResult> onResult) {
+        Object lock = new Object();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        int[] index = {0};
+        fens.map(String::strip)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .forEachOrdered(fen -> {
+                    int puzzle = index[0]++;
+                    tasks.add(pool.submit(() -> {
+                        MateResult result = solve(puzzle, fen);
+                        synchronized (lock) {
+                            onResult.accept(result);
+                        }
+                    }));
+                });
+        for (ForkJoinTask<?> task : tasks){
+            task.join();
+        }
+    }
+
+    /**
+     * Solves every puzzle in a file of FEN lines; see {@link #solveAll}
+     *
+     * @throws IOException if the file can't be read
+     */
+    public void solveFile(Path file, ForkJoinPool pool, Consumer<MateResult> onResult) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            solveAll(lines, pool, onResult);
+        }
+    }
+
+    /**
+     * Solves a single puzzle on the calling thread
+     *
+     * @param fen the position, with the attacker to move
+     * @return the result, with index 0
+     */
+    public MateResult solve(String fen) {
+        return solve(0, fen);
+    }
+
+    private MateResult solve(int index, String fen) {
+        ChessGame game = new ChessGame();
+        try {
+            game.loadFEN(fen);
+        } catch (IllegalArgumentException e) {
+            return new MateResult(index, fen, MateResult.Status.INVALID, 0, List.of(), 0);
+        }
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor attacker = game.getTeamTurn();
+        if (!isLegal(board, attacker)){
+            return new MateResult(index, fen, MateResult.Status.INVALID, 0, List.of(), 0);
+        }
+
+        if (isDrawn(board, attacker)){
+            return new MateResult(index, fen, MateResult.Status.NO_MATE, 0, List.of(), 0);
+        }
+        Search search = new Search(board);
+        for (int moves = 1; moves <= maxMoves; moves++){
+            List<ChessMove> keys = search.keyMoves(attacker, moves);
+            if (!keys.isEmpty()){
+                return new MateResult(index, fen, MateResult.Status.MATE, moves, keys, search.nodes);
+            }
+        }
+        return new MateResult(index, fen, MateResult.Status.NO_MATE, 0, List.of(), search.nodes);
+    }
+
+    /**
+     * One king each, and the side not to move can't be in check
+     */
+    private static boolean isLegal(ChessBoard board, ChessGame.TeamColor attacker) {
+        ChessGame.TeamColor defender = opponent(attacker);
+        if (Long.bitCount(board.getPieces(attacker, ChessPiece.PieceType.KING)) != 1
+                || Long.bitCount(board.getPieces(defender, ChessPiece.PieceType.KING)) != 1){
+            return false;
+        }
+        return !board.isSquareAttacked(board.getKingSquare(defender), attacker);
+    }
+
+    /**
+     * @return True if the bitbases cover the position and the attacker
+     * doesn't win it, so there is no mate to find
+     */
+    private boolean isDrawn(ChessBoard board, ChessGame.TeamColor attacker) {
+        if (bitbases == null || Long.bitCount(board.getOccupied()) > 3){
+            return false;
+        }
+        Wdl result = bitbases.probe(board, attacker);
+        return result != null && result != Wdl.WIN;
+    }
+
+    /**
+     * The proof search for one puzzle, with its own move lists
+     */
+    private final class Search {
+        private final ChessBoard board;
+        private final List<MoveList> moveLists = new ArrayList<>();
+        long nodes;
+
+        Search(ChessBoard board) {
+            this.board = board;
+        }
+
+        /**
+         * @return every attacker move that forces mate within the given
+         * number of moves, in generation order
+         */
+        List<ChessMove> keyMoves(ChessGame.TeamColor attacker, int moves) {
+            List<ChessMove> keys = new ArrayList<>();
+            MoveList list = moves(0, attacker);
+            ChessGame.TeamColor defender = opponent(attacker);
+            for (int i = 0; i < list.size(); i++){
+                int move = list.get(i);
+                board.makeMove(move);
+                if (givesCheck(defender) && defends(defender, moves, 1)){
+                    keys.add(Move.toChessMove(move));
+                }
+                board.unmakeMove();
+            }
+            return keys;
+        }
+
+        /**
+         * @return True if the attacker, to move, can mate within moves by checks alone
+         */
+        private boolean attacks(ChessGame.TeamColor attacker, int moves, int ply) {
+            if (isDrawn(board, attacker)){
+                return false;
+            }
+            MoveList list = moves(ply, attacker);
+            ChessGame.TeamColor defender = opponent(attacker);
+            for (int i = 0; i < list.size(); i++){
+                board.makeMove(list.get(i));
+                boolean mates = givesCheck(defender) && defends(defender, moves, ply + 1);
+                board.unmakeMove();
+                if (mates){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param moves attacker moves left, counting the check just given
+         * @return True if the defender, in check, is mated or every reply
+         * still loses to a checking mate in the moves left
+         */
+        private boolean defends(ChessGame.TeamColor defender, int moves, int ply) {
+            MoveList list = moves(ply, defender);
+            if (list.isEmpty()){
+                return true;
+            }
+            if (moves == 1){
+                return false;
+            }
+            ChessGame.TeamColor attacker = opponent(defender);
+            for (int i = 0; i < list.size(); i++){
+                board.makeMove(list.get(i));
+                boolean mated = attacks(attacker, moves - 1, ply + 1);
+                board.unmakeMove();
+                if (!mated){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean givesCheck(ChessGame.TeamColor defender) {
+            return board.isSquareAttacked(board.getKingSquare(defender), opponent(defender));
+        }
+
+        private MoveList moves(int ply, ChessGame.TeamColor color) {
+            nodes++;
+            while (moveLists.size() <= ply){
+                moveLists.add(new MoveList());
+            }
+            MoveList list = moveLists.get(ply);
+            list.clear();
+            MoveGenerator.generate(board, color, ~0L, list);
+            return list;
+        }
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    /**
+     * Checks a file of FEN lines for mates and prints one line per puzzle as
+     * it finishes
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2){
+            System.err.println("Usage: MateSolver <file> <moves>");
+            System.exit(1);
+        }
+        MateSolver solver = new MateSolver(Integer.parseInt(args[1]));
+        solver.solveFile(Path.of(args[0]), ForkJoinPool.commonPool(), result -> System.out.println(
+                result.index() + "\t" + result.status() + "\t" + result.moves() + "\t" + result.keyMoves()
+                        + "\t" + result.nodes() + "\t" + result.fen()));
+    }
+}
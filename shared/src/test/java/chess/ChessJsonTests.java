@@ -0,0 +1,114 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ChessJsonTests {
+    private static final Gson GSON = ChessJson.gson();
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b Kq e3 4 17";
+
+    @Test
+    @DisplayName("Game Is Its FEN")
+    public void game() {
+        ChessGame game = new ChessGame();
+        game.loadFEN(KIWIPETE);
+
+        String json = GSON.toJson(game);
+        Assertions.assertEquals('"' + KIWIPETE + '"', json);
+        Assertions.assertEquals(KIWIPETE, GSON.fromJson(json, ChessGame.class).toFEN());
+    }
+
+    @Test
+    @DisplayName("Board Is Its FEN Board Fields")
+    public void board() {
+        ChessGame game = new ChessGame();
+        game.loadFEN(KIWIPETE);
+
+        String json = GSON.toJson(game.getBoard());
+        Assertions.assertEquals("\"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R Kq e3\"", json);
+        ChessBoard board = GSON.fromJson(json, ChessBoard.class);
+        Assertions.assertEquals(game.getBoard(), board);
+        Assertions.assertEquals(game.getBoard().getZobristKey(), board.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Pieces, Positions And Moves")
+    public void smallTypes() {
+        ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals("\"n\"", GSON.toJson(piece));
+        Assertions.assertSame(piece, GSON.fromJson("\"n\"", ChessPiece.class));
+
+        ChessPosition position = ChessPosition.of(2, 5);
+        Assertions.assertEquals("{\"row\":2,\"col\":5}", GSON.toJson(position));
+        Assertions.assertEquals(position, GSON.fromJson("{\"col\":5,\"row\":2}", ChessPosition.class));
+
+        ChessMove promotion = new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN);
+        ChessMove quiet = new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+        Assertions.assertEquals(new Gson().toJson(promotion), GSON.toJson(promotion), "Move shape changed");
+        Assertions.assertEquals(new Gson().toJson(quiet), GSON.toJson(quiet), "Move shape changed");
+        Assertions.assertEquals(promotion, GSON.fromJson(GSON.toJson(promotion), ChessMove.class));
+        Assertions.assertEquals(quiet, GSON.fromJson(GSON.toJson(quiet), ChessMove.class));
+    }
+
+    @Test
+    @DisplayName("Nested In Other Objects")
+    public void nested() {
+        Map<String, Object> response = new TreeMap<>(Map.of("gameID", 7, "gameState", new ChessGame()));
+        Assertions.assertEquals("{\"gameID\":7,\"gameState\":\"" + Fen.START + "\"}", GSON.toJson(response));
+
+        ChessMove[] moves = GSON.fromJson("[{\"startPosition\":{\"row\":1,\"col\":2},\"endPosition\":"
+                + "{\"row\":3,\"col\":3}},null]", ChessMove[].class);
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null), moves[0]);
+        Assertions.assertNull(moves[1]);
+    }
+
+    @Test
+    @DisplayName("Reads Reflective JSON")
+    public void legacy() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        String reflective = new Gson().toJson(game);
+
+        ChessGame read = GSON.fromJson(reflective, ChessGame.class);
+        Assertions.assertEquals(game.toFEN(), read.toFEN());
+        Assertions.assertEquals(game.getBoard(), GSON.fromJson(new Gson().toJson(game.getBoard()), ChessBoard.class));
+        ChessPiece king = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        Assertions.assertSame(king, GSON.fromJson(new Gson().toJson(king), ChessPiece.class));
+    }
+
+    @Test
+    @DisplayName("Reads JSON From Before Castling Rights And Clocks")
+    public void oldest() {
+        StringBuilder squares = new StringBuilder("[");
+        for (int row = 0; row < 8; row++){
+            squares.append(row == 0 ? "[" : ",[");
+            for (int col = 0; col < 8; col++){
+                squares.append(col == 0 ? "" : ",");
+                squares.append(row == 0 && col == 4 ? "{\"pieceColor\":\"WHITE\",\"type\":\"KING\"}"
+                        : row == 7 && col == 4 ? "{\"pieceColor\":\"BLACK\",\"type\":\"KING\"}" : "null");
+            }
+            squares.append(']');
+        }
+        squares.append(']');
+        String json = "{\"currentTurn\":\"BLACK\",\"board\":{\"squares\":" + squares + "}}";
+
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b KQkq - 0 1", GSON.fromJson(json, ChessGame.class).toFEN());
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Values")
+    public void bad() {
+        Assertions.assertThrows(JsonParseException.class, () -> GSON.fromJson("\"not a fen\"", ChessGame.class));
+        Assertions.assertThrows(JsonParseException.class, () -> GSON.fromJson("\"x\"", ChessPiece.class));
+        Assertions.assertThrows(JsonParseException.class,
+                () -> GSON.fromJson("{\"pieceColor\":\"GREEN\",\"type\":\"KING\"}", ChessPiece.class));
+        Assertions.assertThrows(JsonParseException.class,
+                () -> GSON.fromJson("{\"startPosition\":{\"row\":1,\"col\":1}}", ChessMove.class));
+    }
+}
@@ -0,0 +1,114 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DrawRuleTests {
+    private static final ChessMove WHITE_OUT = TestMoves.move(1, 7, 3, 6);
+    private static final ChessMove BLACK_OUT = TestMoves.move(8, 7, 6, 6);
+    private static final ChessMove WHITE_BACK = TestMoves.move(3, 6, 1, 7);
+    private static final ChessMove BLACK_BACK = TestMoves.move(6, 6, 8, 7);
+
+    @Test
+    @DisplayName("Knight Shuffle Repeats Three Times")
+    public void threefold() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(1, game.getRepetitionCount());
+
+        shuffle(game);
+        Assertions.assertEquals(2, game.getRepetitionCount());
+        Assertions.assertFalse(game.isThreefoldRepetition());
+
+        shuffle(game);
+        Assertions.assertEquals(3, game.getRepetitionCount());
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertTrue(game.isDrawClaimable());
+
+        game.makeMove(WHITE_OUT);
+        Assertions.assertEquals(3, game.getRepetitionCount(), "Position after Nf3 has also been seen three times");
+    }
+
+    @Test
+    @DisplayName("Same Squares With The Other Side To Move Don't Count")
+    public void sideToMove() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(WHITE_OUT);
+        game.makeMove(BLACK_OUT);
+        game.makeMove(WHITE_BACK);
+        Assertions.assertEquals(1, game.getRepetitionCount());
+    }
+
+    @Test
+    @DisplayName("Pawn Move Ends The Repetition Window")
+    public void irreversible() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffle(game);
+        game.makeMove(TestMoves.move(2, 1, 3, 1));
+        game.makeMove(TestMoves.move(7, 1, 6, 1));
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        shuffle(game);
+        shuffle(game);
+
+        Assertions.assertEquals(3, game.getRepetitionCount());
+        shuffle(game);
+        Assertions.assertEquals(4, game.getRepetitionCount(), "Counted positions from before the pawn moves");
+    }
+
+    @Test
+    @DisplayName("Lost Castling Rights Make A New Position")
+    public void castlingRights() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.loadFEN("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1");
+        ChessMove out = TestMoves.move(1, 5, 2, 5);
+        ChessMove back = TestMoves.move(2, 5, 1, 5);
+        ChessMove blackOut = TestMoves.move(8, 5, 8, 4);
+        ChessMove blackBack = TestMoves.move(8, 4, 8, 5);
+
+        game.makeMove(out);
+        game.makeMove(blackOut);
+        game.makeMove(back);
+        game.makeMove(blackBack);
+        Assertions.assertEquals(1, game.getRepetitionCount(), "Position without the castling right matched one with it");
+
+        game.makeMove(out);
+        game.makeMove(blackOut);
+        game.makeMove(back);
+        game.makeMove(blackBack);
+        Assertions.assertEquals(2, game.getRepetitionCount());
+    }
+
+    @Test
+    @DisplayName("Fifty Moves Without Progress")
+    public void fiftyMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.loadFEN("4k3/8/8/8/8/8/8/R3K3 w - - 98 80");
+        game.makeMove(TestMoves.move(1, 1, 2, 1));
+        Assertions.assertFalse(game.isFiftyMoveRule());
+
+        game.makeMove(TestMoves.move(8, 5, 8, 4));
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertTrue(game.isFiftyMoveRule());
+        Assertions.assertTrue(game.isDrawClaimable());
+        Assertions.assertEquals(1, game.getRepetitionCount(), "History reached back before the loaded position");
+    }
+
+    @Test
+    @DisplayName("New Board Starts A New History")
+    public void setBoard() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffle(game);
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        game.setBoard(board);
+
+        Assertions.assertEquals(1, game.getRepetitionCount());
+    }
+
+    private static void shuffle(ChessGame game) throws InvalidMoveException {
+        game.makeMove(WHITE_OUT);
+        game.makeMove(BLACK_OUT);
+        game.makeMove(WHITE_BACK);
+        game.makeMove(BLACK_BACK);
+    }
+}
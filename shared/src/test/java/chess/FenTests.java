@@ -0,0 +1,146 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class FenTests {
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "4k3/8/8/8/3pP3/8/8/4K3 b - e3 12 47",
+            "r3k3/8/8/8/8/8/8/4K2R b Kq - 99 150",
+    })
+    @DisplayName("Round Trip")
+    public void roundTrip(String fen) {
+        ChessGame game = new ChessGame();
+        game.loadFEN(fen);
+        Assertions.assertEquals(fen, game.toFEN());
+    }
+
+    @Test
+    @DisplayName("New Game Writes The Start Position")
+    public void startPosition() {
+        Assertions.assertEquals(Fen.START, new ChessGame().toFEN());
+    }
+
+    @Test
+    @DisplayName("Fields Read Into The Game")
+    public void fields() {
+        ChessGame game = new ChessGame();
+        game.loadFEN("4k3/8/8/8/3pP3/8/8/R3K2R b Kq e3 12 47");
+
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(ChessBoard.WHITE_KINGSIDE | ChessBoard.BLACK_QUEENSIDE,
+                game.getBoard().getCastlingRights());
+        Assertions.assertEquals(ChessPosition.of(3, 5).toSquare(), game.getBoard().getEnPassantSquare());
+        Assertions.assertEquals(12, game.getHalfmoveClock());
+        Assertions.assertEquals(47, game.getFullmoveNumber());
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN),
+                game.getBoard().getPiece(ChessPosition.of(4, 4)));
+    }
+
+    @Test
+    @DisplayName("Missing Fields Take Defaults")
+    public void defaults() {
+        ChessGame game = new ChessGame();
+        game.loadFEN("4k3/8/8/8/8/8/8/4K3");
+
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 w - - 0 1", game.toFEN());
+        game.loadFEN("4k3/8/8/8/8/8/8/4K3 b");
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", game.toFEN());
+    }
+
+    @Test
+    @DisplayName("Moves Update Every Field")
+    public void moves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(TestMoves.move(2, 5, 4, 5));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFEN());
+
+        game.makeMove(TestMoves.move(8, 7, 6, 6));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", game.toFEN());
+
+        game.makeMove(TestMoves.move(1, 5, 2, 5));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", game.toFEN());
+
+        game.makeMove(TestMoves.move(6, 6, 4, 5));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/8/8/4n3/8/PPPPKPPP/RNBQ1BNR w kq - 0 3", game.toFEN());
+    }
+
+    @Test
+    @DisplayName("Capturing A Rook Takes Its Castling Right")
+    public void rookCaptured() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.loadFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        game.makeMove(TestMoves.move(1, 8, 8, 8));
+
+        Assertions.assertEquals("r3k2R/8/8/8/8/8/8/R3K3 b Qq - 0 1", game.toFEN());
+    }
+
+    @Test
+    @DisplayName("Malformed FEN Is Rejected And Leaves The Game Alone")
+    public void malformed() {
+        String[] bad = {
+                "",
+                "not a fen",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KK - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e3 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq i6 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+        };
+        ChessGame game = new ChessGame();
+        for (String fen : bad){
+            Assertions.assertThrows(IllegalArgumentException.class, () -> game.loadFEN(fen), fen);
+            Assertions.assertEquals(Fen.START, game.toFEN(), "Game changed by " + fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Board Reads Only Its Own Fields")
+    public void boardOnly() {
+        ChessBoard board = new ChessBoard();
+        board.loadFEN("r3k2r/8/8/8/8/8/8/R3K2R b Kk - 3 20");
+
+        Assertions.assertEquals("r3k2r/8/8/8/8/8/8/R3K2R", board.toFEN());
+        Assertions.assertEquals(ChessBoard.WHITE_KINGSIDE | ChessBoard.BLACK_KINGSIDE, board.getCastlingRights());
+        Assertions.assertEquals(-1, board.getEnPassantSquare());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> board.loadFEN("4k3/8/8/8/8/8/8/4K3 x - - 0 1"), "Bad side to move accepted");
+    }
+
+    @Test
+    @DisplayName("Equal Boards Hash The Same")
+    public void equalBoardsHash() {
+        ChessBoard reset = new ChessBoard();
+        reset.resetBoard();
+        ChessBoard loaded = new ChessBoard();
+        loaded.loadFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR");
+
+        Assertions.assertNotEquals(reset.getCastlingRights(), loaded.getCastlingRights());
+        Assertions.assertEquals(reset, loaded);
+        Assertions.assertEquals(reset.hashCode(), loaded.hashCode());
+
+        ChessBoard passant = new ChessBoard();
+        passant.loadFEN("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1");
+        ChessBoard noPassant = new ChessBoard();
+        noPassant.loadFEN("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1");
+        Assertions.assertEquals(passant, noPassant);
+        Assertions.assertEquals(passant.hashCode(), noPassant.hashCode());
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+
+public class GameCodecTests {
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "4k3/8/8/8/3pP3/8/8/4K3 b - e3 12 47",
+            "r3k3/8/8/8/8/8/8/4K2R b Kq - 99 150",
+            "4k3/8/8/8/8/8/8/4K3 w - - 300 20000",
+            "8/8/8/8/8/8/8/8 w - - 0 1",
+    })
+    @DisplayName("Round Trip")
+    public void roundTrip(String fen) {
+        ChessGame game = new ChessGame();
+        game.loadFEN(fen);
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        Assertions.assertEquals(fen, decoded.toFEN());
+        Assertions.assertEquals(game.getBoard(), decoded.getBoard());
+        Assertions.assertEquals(game.getZobristKey(), decoded.getZobristKey());
+        Assertions.assertEquals(fen, GameCodec.decode(GameCodec.encodeToString(game)).toFEN());
+    }
+
+    @Test
+    @DisplayName("Start Position Fits In 30 Bytes")
+    public void size() {
+        Assertions.assertEquals(30, GameCodec.encode(new ChessGame()).length);
+        Assertions.assertEquals(40, GameCodec.encodeToString(new ChessGame()).length());
+    }
+
+    @Test
+    @DisplayName("Every Square Filled")
+    public void fullBoard() {
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++){
+            board.setSquare(square, ChessPiece.of(ChessGame.TeamColor.values()[square & 1],
+                    ChessPiece.PieceType.values()[square % 6]));
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        Assertions.assertEquals(board, GameCodec.decode(GameCodec.encode(game)).getBoard());
+    }
+
+    @Test
+    @DisplayName("Decoded Game Plays On")
+    public void playable() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        decoded.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2", decoded.toFEN());
+    }
+
+    @Test
+    @DisplayName("Rejects Damaged Input")
+    public void damaged() {
+        byte[] good = GameCodec.encode(new ChessGame());
+
+        assertRejected(new byte[0]);
+        assertRejected(Arrays.copyOf(good, good.length - 1));
+        assertRejected(Arrays.copyOf(good, good.length + 1));
+        byte[] magic = good.clone();
+        magic[0] = '{';
+        assertRejected(magic);
+        byte[] version = good.clone();
+        version[1] = 2;
+        assertRejected(version);
+        byte[] piece = good.clone();
+        piece[good.length - 1] = (byte) 0xFF;
+        assertRejected(piece);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode("not base64!"));
+    }
+
+    private static void assertRejected(byte[] bytes) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(bytes));
+    }
+}
@@ -0,0 +1,84 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Perft regression suite: leaf node counts for standard test positions, as
+ * published on the Chess Programming Wiki and in Martin Sedlak's perft set.
+ */
+public class PerftTests {
+
+    @ParameterizedTest(name = "{0} depth {1}")
+    @DisplayName("Perft Node Counts")
+    @CsvSource(delimiter = ';', value = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1; 1; 20",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1; 2; 400",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1; 3; 8902",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1; 4; 197281",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1; 1; 14",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1; 2; 191",
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1; 1; 24",
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1; 2; 496",
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1; 3; 9483",
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1; 4; 182838",
+            "2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1; 6; 3821001",
+            "8/8/1P2K3/8/2n5/1q6/8/5k2 b - - 0 1; 5; 1004658",
+            "4k3/1P6/8/8/8/8/K7/8 w - - 0 1; 6; 217342",
+            "8/P1k5/K7/8/8/8/8/8 w - - 0 1; 6; 92683",
+            "K1k5/8/P7/8/8/8/8/8 w - - 0 1; 6; 2217",
+            "8/k1P5/8/1K6/8/8/8/8 w - - 0 1; 7; 567584",
+            "8/8/2k5/5q2/5n2/8/5K2/8 b - - 0 1; 4; 23527",
+            // Full rules from here on: castling and en passant
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1; 5; 4865609",
+            // Kiwipete
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 1; 48",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 2; 2039",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 3; 97862",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 4; 4085603",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1; 5; 674624",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1; 4; 422333",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1; 4; 422333",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8; 3; 62379",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10; 3; 89890",
+            // En passant that would expose the king, and en passant giving check
+            "3k4/3p4/8/K1P4r/8/8/8/8 b - - 0 1; 6; 1134888",
+            "8/8/4k3/8/2p5/8/B2P2K1/8 w - - 0 1; 6; 1015133",
+            "8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1; 6; 1440467",
+            // Castling that gives check, keeps or loses rights, or is prevented
+            "5k2/8/8/8/8/8/8/4K2R w K - 0 1; 6; 661072",
+            "3k4/8/8/8/8/8/8/R3K3 w Q - 0 1; 6; 803711",
+            "r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq - 0 1; 4; 1274206",
+            "r3k2r/8/3Q4/8/8/5q2/8/R3K2R b KQkq - 0 1; 4; 1720476",
+    })
+    public void perft(String fen, int depth, long expected) {
+        ChessGame game = load(fen);
+        Assertions.assertEquals(expected, Perft.perft(game, depth), "Wrong node count");
+        Assertions.assertEquals(load(fen).getBoard(), game.getBoard(), "Perft did not restore the board");
+    }
+
+    @ParameterizedTest(name = "depth {0}")
+    @DisplayName("Divide Adds Up To Perft")
+    @CsvSource({"1", "2", "3"})
+    public void divide(int depth) {
+        ChessGame game = new ChessGame();
+        long total = Perft.divide(game, depth).values().stream().mapToLong(Long::longValue).sum();
+        Assertions.assertEquals(Perft.perft(game, depth), total, "Divide totals differ from perft");
+    }
+
+    @Test
+    @DisplayName("Rejects Depths Out Of Range")
+    public void badDepth() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.divide(new ChessGame(), 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.perft(new ChessGame(), -1));
+    }
+
+    private static ChessGame load(String fen) {
+        ChessGame game = new ChessGame();
+        game.loadFEN(fen);
+        return game;
+    }
+}
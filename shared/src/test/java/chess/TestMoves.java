@@ -0,0 +1,16 @@
+package chess;
+
+/**
+ * Move shorthand shared by the chess tests
+ */
+public final class TestMoves {
+    private TestMoves() {
+    }
+
+    /**
+     * @return the move between two squares, by 1-based row and column, with no promotion
+     */
+    public static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+}
@@ -0,0 +1,97 @@
+package chess.bitbase;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class BitbasesTests {
+    private static Bitbases bitbases;
+
+    @BeforeAll
+    public static void generate() {
+        bitbases = Bitbases.generate();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = ';', value = {
+            "8/8/8/4k3/8/8/8/KQ6 w - - 0 1; WIN",
+            "8/8/8/4k3/8/8/8/KQ6 b - - 0 1; LOSS",
+            // Black takes the undefended queen
+            "8/8/8/8/8/8/1k6/1Q5K b - - 0 1; DRAW",
+            // Stalemate
+            "k7/2Q5/1K6/8/8/8/8/8 b - - 0 1; DRAW",
+            // Checkmate
+            "k7/1Q6/1K6/8/8/8/8/8 b - - 0 1; LOSS",
+            "8/8/3k4/8/8/8/8/R3K3 w - - 0 1; WIN",
+            "8/8/3k4/8/8/8/8/R3K3 b - - 0 1; LOSS",
+            "8/8/8/8/8/8/1k6/1R5K b - - 0 1; DRAW",
+            // Black pieces against the white king
+            "kr6/8/8/8/8/8/8/7K b - - 0 1; WIN",
+            "kr6/8/8/8/8/8/8/7K w - - 0 1; LOSS",
+            // King in front of its pawn on the sixth rank wins whoever moves
+            "4k3/8/4K3/4P3/8/8/8/8 w - - 0 1; WIN",
+            "4k3/8/4K3/4P3/8/8/8/8 b - - 0 1; LOSS",
+            // Pawn runs in before the king can catch it
+            "8/1P6/8/8/8/8/7k/K7 w - - 0 1; WIN",
+            // Stalemate in front of the pawn
+            "4k3/4P3/4K3/8/8/8/8/8 b - - 0 1; DRAW",
+            // The lone king takes the pawn
+            "8/8/8/8/8/8/kP6/7K b - - 0 1; DRAW",
+            // Rook pawn with the defending king in the corner
+            "k7/8/8/P7/8/8/8/1K6 w - - 0 1; DRAW",
+            // Black pawn: Kf2 covers the queening square
+            "8/8/8/8/8/4k3/4p3/2K5 b - - 0 1; WIN",
+            // Black pawn: the white king in front of it holds the draw
+            "8/8/8/8/4k3/4p3/8/4K3 b - - 0 1; DRAW",
+    })
+    @DisplayName("Known Endings")
+    public void known(String fen, Wdl expected) {
+        Assertions.assertEquals(expected, bitbases.probe(load(fen)));
+    }
+
+    @Test
+    @DisplayName("Other Material Is Not Covered")
+    public void notCovered() {
+        Assertions.assertNull(bitbases.probe(load("8/8/3k4/8/8/8/8/RN2K3 w - - 0 1")));
+        Assertions.assertNull(bitbases.probe(load("8/8/3k4/8/8/8/8/1N2K3 w - - 0 1")));
+        Assertions.assertNull(bitbases.probe(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Written Files Map Back")
+    public void writeAndOpen(@TempDir Path directory) throws IOException {
+        bitbases.write(directory);
+        Assertions.assertEquals(65536, Files.size(directory.resolve("kpk.bb")));
+        Bitbases mapped = Bitbases.open(directory);
+
+        for (String fen : new String[]{"8/8/8/4k3/8/8/8/KQ6 b - - 0 1", "8/8/8/8/8/8/1k6/1R5K b - - 0 1",
+                "4k3/8/4K3/4P3/8/8/8/8 w - - 0 1", "k7/8/8/P7/8/8/8/1K6 w - - 0 1"}){
+            ChessGame game = load(fen);
+            Assertions.assertEquals(bitbases.probe(game), mapped.probe(game), fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects Wrong File Size")
+    public void wrongSize(@TempDir Path directory) throws IOException {
+        bitbases.write(directory);
+        Files.write(directory.resolve("krk.bb"), new byte[100]);
+
+        Assertions.assertThrows(IOException.class, () -> Bitbases.open(directory));
+    }
+
+    private static ChessGame load(String fen) {
+        ChessGame game = new ChessGame();
+        game.loadFEN(fen);
+        return game;
+    }
+}
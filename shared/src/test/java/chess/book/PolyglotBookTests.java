@@ -0,0 +1,169 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.TestMoves;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+public class PolyglotBookTests {
+    private static final ChessMove E4 = TestMoves.move(2, 5, 4, 5);
+    private static final ChessMove D4 = TestMoves.move(2, 4, 4, 4);
+    private static final ChessMove E5 = TestMoves.move(7, 5, 5, 5);
+
+    // Stand-in for Polyglot's table; the book code never looks at the values
+    private static PolyglotKeys keys;
+
+    @TempDir
+    static Path directory;
+
+    @BeforeAll
+    public static void createKeys() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        StringBuilder source = new StringBuilder("const U64 Random64[781] = {\n");
+        for (int i = 0; i < PolyglotKeys.COUNT; i++){
+            source.append(String.format("   U64(0x%016X),%n", random.nextLong()));
+        }
+        source.append("};\n");
+        Path file = directory.resolve("random64.c");
+        Files.writeString(file, source);
+        keys = PolyglotKeys.load(file);
+    }
+
+    @Test
+    @DisplayName("Finds Moves By Weight")
+    public void lookup() throws IOException {
+        ChessGame game = new ChessGame();
+        PolyglotBook book = book(Map.of(
+                keys.key(game), List.of(new long[]{encode(D4), 10}, new long[]{encode(E4), 30},
+                        // Not legal in the position, so it must be skipped
+                        new long[]{encode(E5), 50}),
+                12345L, List.of(new long[]{encode(E4), 1})));
+
+        List<BookMove> moves = book.lookup(game);
+        Assertions.assertEquals(List.of(new BookMove(E4, 30), new BookMove(D4, 10)), moves);
+        Assertions.assertEquals(List.of(E4, D4), book.candidates(game));
+        Assertions.assertEquals(4, book.size());
+    }
+
+    @Test
+    @DisplayName("Unknown Position Has No Moves")
+    public void unknown() throws IOException, InvalidMoveException {
+        ChessGame game = new ChessGame();
+        PolyglotBook book = book(Map.of(keys.key(game), List.<long[]>of(new long[]{encode(E4), 1})));
+        game.makeMove(D4);
+
+        Assertions.assertTrue(book.lookup(game).isEmpty());
+        Assertions.assertNull(book.pick(game, new Random(1)));
+    }
+
+    @Test
+    @DisplayName("Picks In Proportion To Weight")
+    public void weightedPick() throws IOException, InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(E4);
+        ChessMove c5 = TestMoves.move(7, 3, 5, 3);
+        PolyglotBook book = book(Map.of(keys.key(game), List.of(
+                new long[]{encode(E5), 3}, new long[]{encode(c5), 1}, new long[]{encode(TestMoves.move(7, 1, 6, 1)), 0})));
+
+        Random random = new Random(42);
+        int e5 = 0;
+        for (int i = 0; i < 4000; i++){
+            ChessMove pick = book.pick(game, random);
+            Assertions.assertTrue(pick.equals(E5) || pick.equals(c5), "Picked a zero weight move");
+            if (pick.equals(E5)){
+                e5++;
+            }
+        }
+        Assertions.assertEquals(3000, e5, 150, "Moves were not picked by weight");
+    }
+
+    @Test
+    @DisplayName("Side To Move Changes Key")
+    public void turnInKey() {
+        ChessGame game = new ChessGame();
+        long white = keys.key(game);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        Assertions.assertNotEquals(white, keys.key(game));
+    }
+
+    @Test
+    @DisplayName("En Passant Counts Only When A Pawn Can Take")
+    public void enPassantInKey() {
+        ChessGame game = new ChessGame();
+        game.loadFEN("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 3");
+        long capturable = keys.key(game);
+        game.loadFEN("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 3");
+        Assertions.assertNotEquals(capturable, keys.key(game));
+
+        game.loadFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        long idle = keys.key(game);
+        game.loadFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        Assertions.assertEquals(idle, keys.key(game));
+    }
+
+    @Test
+    @DisplayName("Lost Castling Rights Change Key")
+    public void castlingInKey() {
+        ChessGame game = new ChessGame();
+        game.loadFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        long all = keys.key(game);
+        game.loadFEN("r3k2r/8/8/8/8/8/8/R3K2R w Kkq - 0 1");
+
+        Assertions.assertNotEquals(all, keys.key(game));
+    }
+
+    @Test
+    @DisplayName("Rejects Wrong Key Count")
+    public void wrongKeyCount() {
+        Assertions.assertThrows(IOException.class, () -> PolyglotKeys.load(
+                new ByteArrayInputStream("0x0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    /**
+     * Writes a book file holding the given entries, sorted the way Polyglot
+     * sorts them
+     */
+    private static PolyglotBook book(Map<Long, List<long[]>> positions) throws IOException {
+        TreeMap<Long, List<long[]>> sorted = new TreeMap<>(Long::compareUnsigned);
+        sorted.putAll(positions);
+        List<long[]> entries = new ArrayList<>();
+        sorted.forEach((key, moves) -> {
+            for (long[] move : moves){
+                entries.add(new long[]{key, move[0], move[1]});
+            }
+        });
+        ByteBuffer buffer = ByteBuffer.allocate(entries.size() * 16);
+        for (long[] entry : entries){
+            buffer.putLong(entry[0]).putShort((short) entry[1]).putShort((short) entry[2]).putInt(0);
+        }
+        Path file = Files.createTempFile(directory, "book", ".bin");
+        Files.write(file, buffer.array());
+        return PolyglotBook.open(file, keys);
+    }
+
+    private static long encode(ChessMove move) {
+        ChessPosition from = move.getStartPosition();
+        ChessPosition to = move.getEndPosition();
+        return (to.getColumn() - 1) | (to.getRow() - 1) << 3 | (from.getColumn() - 1) << 6 | (from.getRow() - 1) << 9;
+    }
+}
@@ -0,0 +1,101 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+/**
+ * Checks the keys against the reference keys published with the Polyglot
+ * book format. The change in key from the starting position only depends on
+ * the pieces that moved, so it is checked against the published Random64
+ * entries for those squares alone; the full keys need the whole table and
+ * are skipped when its resource is not on the classpath.
+ */
+public class PolyglotKeysTests {
+    private static final long START = 0x463B96181691FC9CL;
+    // Published Random64 entries, by index, for every square, castling right,
+    // en passant file and turn that the reference moves change
+    private static final long[][] PUBLISHED = {
+            {18, 0x7449BBFF801FED0BL}, {25, 0x8DBD98A352AFD40BL}, {33, 0x14A68FD73C910841L},
+            {35, 0x03488B95B0F1850FL}, {37, 0x09D1BC9A3DD90A94L}, {49, 0x8C74C368081B3075L},
+            {51, 0x7EF48F2B83024E20L}, {53, 0x6568FCA92C76A243L}, {72, 0x14ACBAF4777D5776L},
+            {74, 0xDABF2AC8201752FCL}, {76, 0xBB6E2924F03912EAL}, {79, 0xE99D662AF4243939L},
+            {88, 0x87B3E2B2B5C907B1L}, {90, 0xAE4A9346CC3F7CF2L}, {92, 0x87BF02C6B49E2AE9L},
+            {95, 0x8DE8DCA9F03CC54EL}, {100, 0x1E1032911FA78984L}, {448, 0xA09E8C8C35AB96DEL},
+            {464, 0x66C1A2A1A60CD889L}, {693, 0x352787BAA0D7C22FL}, {700, 0x13AE978D09FE5557L},
+            {708, 0xB5FDFC5D3132C498L}, {716, 0x1AF3DBE25D8F45DAL}, {768, 0x31D71DCE64B2C310L},
+            {769, 0xF165B587DF898190L}, {770, 0xA57E6339DD2CF3A0L}, {771, 0x1EF6E6DBB1961EC9L},
+            {774, 0x003A93D8B2806962L}, {777, 0xD0E4427A5514FB72L}, {780, 0xF8D626AAAF278509L},
+    };
+
+    private static PolyglotKeys standard;
+    private static PolyglotKeys published;
+
+    @BeforeAll
+    public static void loadKeys() {
+        long[] random = new long[PolyglotKeys.COUNT];
+        for (long[] entry : PUBLISHED){
+            random[(int) entry[0]] = entry[1];
+        }
+        published = new PolyglotKeys(random);
+        try {
+            standard = PolyglotKeys.standard();
+        } catch (IOException e) {
+            standard = null;
+        }
+    }
+
+    private static Stream<Arguments> references() {
+        return Stream.of(
+                Arguments.of("", 0x463B96181691FC9CL),
+                Arguments.of("e2e4", 0x823C9B50FD114196L),
+                Arguments.of("e2e4 d7d5", 0x0756B94461C50FB0L),
+                Arguments.of("e2e4 d7d5 e4e5", 0x662FAFB965DB29D4L),
+                Arguments.of("e2e4 d7d5 e4e5 f7f5", 0x22A48B5A8E47FF78L),
+                Arguments.of("e2e4 d7d5 e4e5 f7f5 e1e2", 0x652A607CA3F242C1L),
+                Arguments.of("e2e4 d7d5 e4e5 f7f5 e1e2 e8f7", 0x00FDD303C946BDD9L),
+                Arguments.of("a2a4 b7b5 h2h4 b5b4 c2c4", 0x3C8123EA7B067637L),
+                Arguments.of("a2a4 b7b5 h2h4 b5b4 c2c4 b4c3 a1a3", 0x5C3F9B829B279560L));
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("references")
+    @DisplayName("Reference Key Changes")
+    public void keyChanges(String moves, long key) throws InvalidMoveException {
+        long start = published.key(new ChessGame());
+        Assertions.assertEquals(START ^ key, start ^ published.key(play(moves)), moves);
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("references")
+    @DisplayName("Reference Keys")
+    public void referenceKeys(String moves, long key) throws InvalidMoveException {
+        Assumptions.assumeTrue(standard != null, "Polyglot random table not on the classpath");
+        Assertions.assertEquals(key, standard.key(play(moves)), moves);
+    }
+
+    private static ChessGame play(String moves) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (String move : moves.split(" ")){
+            if (!move.isEmpty()){
+                game.makeMove(new ChessMove(square(move, 0), square(move, 2), null));
+            }
+        }
+        return game;
+    }
+
+    private static ChessPosition square(String move, int at) {
+        return ChessPosition.of(move.charAt(at + 1) - '0', move.charAt(at) - 'a' + 1);
+    }
+}
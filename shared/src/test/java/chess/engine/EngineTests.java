@@ -0,0 +1,131 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.bitbase.Bitbases;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class EngineTests {
+
+    @Test
+    @DisplayName("Finds Back Rank Mate")
+    public void mateInOne() {
+        ChessGame game = load("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchRequest.depth(4));
+
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null),
+                result.bestMove(), "Engine missed mate in one");
+        Assertions.assertTrue(result.isMate(), "Mate was not scored as mate");
+    }
+
+    @Test
+    @DisplayName("Takes Hanging Queen")
+    public void hangingQueen() {
+        ChessGame game = load("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchRequest.depth(3));
+
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null),
+                result.bestMove(), "Engine did not take the queen");
+        Assertions.assertTrue(result.score() > 0, "Winning a queen should score positive");
+    }
+
+    @Test
+    @DisplayName("Search Leaves Game Untouched")
+    public void gameUnchanged() {
+        ChessGame game = new ChessGame();
+        long key = game.getZobristKey();
+        SearchResult result = new Engine().search(game, SearchRequest.depth(4));
+
+        Assertions.assertEquals(4, result.depth(), "Search did not reach requested depth");
+        Assertions.assertEquals(key, game.getZobristKey(), "Search modified the game");
+        Assertions.assertEquals(new ChessGame().getBoard(), game.getBoard(), "Search modified the board");
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Stop Ends Unlimited Search")
+    public void stop() throws Exception {
+        Engine engine = new Engine();
+        CompletableFuture<SearchResult> search = CompletableFuture.supplyAsync(
+                () -> engine.search(new ChessGame(), new SearchRequest(0, 0)));
+        Thread.sleep(200);
+        engine.stop();
+
+        Assertions.assertNotNull(search.get().bestMove(), "Stopped search returned no move");
+    }
+
+    @Test
+    @DisplayName("No Move When Checkmated")
+    public void checkmated() {
+        ChessGame game = load("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        SearchResult result = new Engine().search(game, SearchRequest.depth(2));
+
+        Assertions.assertNull(result.bestMove(), "Checkmated side was given a move");
+        Assertions.assertEquals(-Engine.MATE, result.score(), "Checkmate was not scored as lost");
+    }
+
+    @Test
+    @DisplayName("Parallel Search Finds Mate")
+    public void parallelMate() {
+        ChessGame game = load("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchRequest.depth(5).withThreads(4));
+
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null),
+                result.bestMove(), "Parallel search missed mate in one");
+        Assertions.assertTrue(result.isMate(), "Mate was not scored as mate");
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Parallel Search Reaches Depth")
+    public void parallelDepth() {
+        ChessGame game = new ChessGame();
+        SearchResult result = new Engine().search(game, SearchRequest.depth(6).withThreads(3));
+
+        Assertions.assertEquals(6, result.depth(), "Parallel search did not reach requested depth");
+        Assertions.assertNotNull(result.bestMove(), "Parallel search returned no move");
+        Assertions.assertEquals(new ChessGame().getBoard(), game.getBoard(), "Search modified the board");
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Stop Ends Parallel Search")
+    public void stopParallel() throws Exception {
+        Engine engine = new Engine();
+        CompletableFuture<SearchResult> search = CompletableFuture.supplyAsync(
+                () -> engine.search(new ChessGame(), new SearchRequest(0, 0, 4)));
+        Thread.sleep(200);
+        engine.stop();
+
+        Assertions.assertNotNull(search.get().bestMove(), "Stopped search returned no move");
+    }
+
+    @Test
+    @DisplayName("Bitbases Score Endings")
+    public void bitbases() {
+        Engine engine = new Engine(new TranspositionTable(), Bitbases.generate());
+
+        SearchResult won = engine.search(load("8/8/8/4k3/8/8/8/KQ6 w - - 0 1"), SearchRequest.depth(3));
+        Assertions.assertTrue(won.score() >= Engine.KNOWN_WIN, "KQK was not scored as won");
+        Assertions.assertFalse(won.isMate(), "Known win was scored as mate");
+
+        SearchResult drawn = engine.search(load("8/8/8/8/4k3/4p3/8/4K3 b - - 0 1"), SearchRequest.depth(3));
+        Assertions.assertEquals(0, drawn.score(), "Drawn KPK was not scored as a draw");
+
+        SearchResult mate = engine.search(load("k7/8/1K6/8/8/8/8/7Q w - - 0 1"), SearchRequest.depth(3));
+        Assertions.assertTrue(mate.isMate(), "Mate in one behind a known win was missed");
+    }
+
+    static ChessGame load(String fen) {
+        ChessGame game = new ChessGame();
+        game.loadFEN(fen);
+        return game;
+    }
+}
@@ -0,0 +1,85 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PieceSquareTables;
+import chess.moves.MoveGenerator;
+import chess.moves.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Start Position Is Level")
+    public void startLevel() {
+        ChessBoard board = new ChessGame().getBoard();
+
+        Assertions.assertEquals(0, Evaluation.evaluate(board, ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, board.getGamePhase());
+    }
+
+    @Test
+    @DisplayName("Mirrored Position Scores The Same")
+    public void mirrored() {
+        ChessBoard board = EngineTests.load("4k3/8/2n5/3q4/8/5B2/3R1PP1/6K1 w - - 0 1").getBoard();
+        // The same position with the ranks reversed and the colors swapped
+        ChessBoard mirror = EngineTests.load("6k1/3r1pp1/5b2/8/3Q4/2N5/8/4K3 b - - 0 1").getBoard();
+        ChessBoard symmetric = EngineTests.load("r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/2N2N2/PPPP1PPP/R1BQK2R w - - 0 1")
+                .getBoard();
+
+        Assertions.assertEquals(Evaluation.evaluate(board, ChessGame.TeamColor.WHITE),
+                Evaluation.evaluate(mirror, ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(0, Evaluation.evaluate(symmetric, ChessGame.TeamColor.WHITE),
+                "Symmetric position should be level");
+    }
+
+    @Test
+    @DisplayName("Endgame Prefers Advanced Pawn")
+    public void advancedPawn() {
+        ChessBoard advanced = EngineTests.load("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1").getBoard();
+        ChessBoard home = EngineTests.load("4k3/8/8/8/8/8/1P6/4K3 w - - 0 1").getBoard();
+
+        Assertions.assertTrue(Evaluation.evaluate(advanced, ChessGame.TeamColor.WHITE)
+                > Evaluation.evaluate(home, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Incremental Scores Match A Fresh Count")
+    public void incremental() {
+        ChessBoard board = EngineTests.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1")
+                .getBoard();
+        int midgame = board.getMidgameScore();
+        int endgame = board.getEndgameScore();
+        int phase = board.getGamePhase();
+        walk(board, ChessGame.TeamColor.WHITE, 3);
+
+        Assertions.assertEquals(midgame, board.getMidgameScore(), "Unmake did not restore the midgame score");
+        Assertions.assertEquals(endgame, board.getEndgameScore(), "Unmake did not restore the endgame score");
+        Assertions.assertEquals(phase, board.getGamePhase(), "Unmake did not restore the phase");
+    }
+
+    /**
+     * Plays every line to the given depth, checking at each position that the
+     * running totals equal those of a board indexed from scratch
+     */
+    private static void walk(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        ChessBoard fresh = new ChessBoard(board);
+        Assertions.assertEquals(fresh.getMidgameScore(), board.getMidgameScore());
+        Assertions.assertEquals(fresh.getEndgameScore(), board.getEndgameScore());
+        Assertions.assertEquals(fresh.getGamePhase(), board.getGamePhase());
+        if (depth == 0){
+            return;
+        }
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(board, color, ~0L, moves);
+        ChessGame.TeamColor enemy = color == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        for (int i = 0; i < moves.size(); i++){
+            board.makeMove(moves.get(i));
+            walk(board, enemy, depth - 1);
+            board.unmakeMove();
+        }
+    }
+}
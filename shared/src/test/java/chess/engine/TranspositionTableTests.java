@@ -0,0 +1,67 @@
+package chess.engine;
+
+import chess.moves.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Stored Entry Reads Back")
+    public void roundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.encode(12, 28) | Move.CAPTURE;
+        table.store(0x123456789ABCDEFL, move, -1234, 7, TranspositionTable.LOWER);
+
+        long entry = table.probe(0x123456789ABCDEFL);
+        Assertions.assertNotEquals(0, entry, "Stored position was not found");
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-1234, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0, table.probe(0x123456789ABCDEEL), "Different key was found");
+    }
+
+    @Test
+    @DisplayName("Size Follows Megabytes")
+    public void size() {
+        Assertions.assertEquals(65536, new TranspositionTable(1).capacity());
+        Assertions.assertEquals(8 * 65536, new TranspositionTable(8).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Old Entries Replaced First")
+    public void ageReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        // Same bucket: keys that differ only above the index bits
+        long[] keys = new long[5];
+        for (int i = 0; i < keys.length; i++){
+            keys[i] = 42 + ((long) (i + 1) << 40);
+        }
+        table.store(keys[0], 0, 0, 20, TranspositionTable.EXACT);
+        table.newSearch();
+        for (int i = 1; i < 4; i++){
+            table.store(keys[i], 0, 0, 1, TranspositionTable.EXACT);
+        }
+        table.store(keys[4], 0, 0, 1, TranspositionTable.EXACT);
+
+        Assertions.assertEquals(0, table.probe(keys[0]), "Deep entry from an old search survived");
+        for (int i = 1; i < keys.length; i++){
+            Assertions.assertNotEquals(0, table.probe(keys[i]), "Current entry was evicted");
+        }
+    }
+
+    @Test
+    @DisplayName("Shallower Result Keeps Deeper Entry")
+    public void depthPreferred() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(99, Move.encode(1, 18), 50, 6, TranspositionTable.EXACT);
+        table.store(99, 0, -20, 2, TranspositionTable.UPPER);
+
+        long entry = table.probe(99);
+        Assertions.assertEquals(6, TranspositionTable.depth(entry));
+        Assertions.assertEquals(50, TranspositionTable.score(entry));
+    }
+}
@@ -0,0 +1,112 @@
+package chess.puzzle;
+
+import chess.ChessMove;
+import chess.TestMoves;
+import chess.bitbase.Bitbases;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+public class MateSolverTests {
+    private static final String BACK_RANK = "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1";
+    // Rb7 then Ra8 mates in two, but that key is quiet
+    private static final String LADDER = "7k/8/R7/1R6/8/8/8/K7 w - - 0 1";
+    // Philidor's legacy: Nf7+ Kg8 Nh6+ Kh8 Qg8+ Rxg8 Nf7#
+    private static final String SMOTHERED = "2r4k/6pp/8/3Q2N1/8/8/8/7K w - - 0 1";
+    // Qh7# and Nf7# both work
+    private static final String COOKED = "6rk/6pp/8/6N1/8/8/8/1Q4K1 w - - 0 1";
+
+    @Test
+    @DisplayName("Mate In One")
+    public void mateInOne() {
+        MateResult result = new MateSolver(3).solve(BACK_RANK);
+
+        Assertions.assertEquals(MateResult.Status.MATE, result.status());
+        Assertions.assertEquals(1, result.moves());
+        Assertions.assertEquals(List.of(TestMoves.move(1, 1, 8, 1)), result.keyMoves());
+        Assertions.assertTrue(result.isUnique());
+    }
+
+    @Test
+    @DisplayName("Smothered Mate In Four")
+    public void smothered() {
+        MateResult result = new MateSolver(4).solve(SMOTHERED);
+
+        Assertions.assertEquals(MateResult.Status.MATE, result.status());
+        Assertions.assertEquals(4, result.moves());
+        Assertions.assertEquals(List.of(TestMoves.move(5, 7, 7, 6)), result.keyMoves());
+    }
+
+    @Test
+    @DisplayName("Only Checking Mates Count")
+    public void checksOnly() {
+        Assertions.assertEquals(MateResult.Status.NO_MATE, new MateSolver(2).solve(LADDER).status(),
+                "Found a mate whose key move is quiet");
+
+        MateResult result = new MateSolver(3).solve(LADDER);
+        Assertions.assertEquals(MateResult.Status.MATE, result.status());
+        Assertions.assertEquals(3, result.moves());
+        Assertions.assertEquals(List.of(TestMoves.move(5, 2, 8, 2)), result.keyMoves());
+    }
+
+    @Test
+    @DisplayName("Cooked Puzzle Lists Every Key")
+    public void cooked() {
+        MateResult result = new MateSolver(2).solve(COOKED);
+
+        Assertions.assertEquals(1, result.moves());
+        Assertions.assertEquals(2, result.keyMoves().size(), "Expected both mates: " + result.keyMoves());
+        Assertions.assertFalse(result.isUnique());
+    }
+
+    @Test
+    @DisplayName("Invalid Puzzles")
+    public void invalid() {
+        MateSolver solver = new MateSolver(2);
+
+        Assertions.assertEquals(MateResult.Status.INVALID, solver.solve("not a fen").status());
+        Assertions.assertEquals(MateResult.Status.INVALID, solver.solve("R5k1/8/8/8/8/8/8/6K1 w - - 0 1").status(),
+                "Side not to move is in check");
+        Assertions.assertEquals(MateResult.Status.INVALID, solver.solve("8/8/8/8/8/8/8/R5K1 w - - 0 1").status(),
+                "Missing king");
+    }
+
+    @Test
+    @DisplayName("Bitbases Cut Drawn Endings")
+    public void bitbases() {
+        String fen = "k7/8/8/P7/8/8/8/1K6 w - - 0 1";
+        MateResult plain = new MateSolver(4).solve(fen);
+        MateResult probed = new MateSolver(4, Bitbases.generate()).solve(fen);
+
+        Assertions.assertEquals(MateResult.Status.NO_MATE, probed.status());
+        Assertions.assertTrue(probed.nodes() < plain.nodes(), "Bitbases did not shrink the search");
+    }
+
+    @Test
+    @DisplayName("Batch Reports Every Puzzle")
+    public void batch() {
+        List<MateResult> results = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            new MateSolver(4).solveAll(Stream.of("# mates", BACK_RANK, "", SMOTHERED, "garbage", LADDER, COOKED),
+                    pool, results::add);
+        } finally {
+            pool.shutdown();
+        }
+
+        results.sort(Comparator.comparingInt(MateResult::index));
+        Assertions.assertEquals(5, results.size());
+        Assertions.assertEquals(List.of(BACK_RANK, SMOTHERED, "garbage", LADDER, COOKED),
+                results.stream().map(MateResult::fen).toList());
+        Assertions.assertEquals(List.of(MateResult.Status.MATE, MateResult.Status.MATE, MateResult.Status.INVALID,
+                        MateResult.Status.MATE, MateResult.Status.MATE),
+                results.stream().map(MateResult::status).toList());
+        Assertions.assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(MateResult::index).toList());
+    }
+}